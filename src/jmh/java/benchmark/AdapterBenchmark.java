@@ -0,0 +1,158 @@
+package benchmark;
+
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the adapter calls JUNG algorithms make in their inner loops, per call, on a sample of
+ * random vertices. Each benchmark touches every element it gets back so that lazy views are charged
+ * for their iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AdapterBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"modern", "er-10k", "pl-10k", "er-1m", "pl-1m", "er-10m", "pl-10m"})
+    public String graph;
+
+    @Param({"JungGraph", "CompiledJungGraph"})
+    public String adapter;
+
+    private Graph<Vertex, Edge> jungGraph;
+    private Vertex[] sources;
+    private Vertex[] targets;
+
+    @Setup
+    public void setUp() {
+        org.apache.tinkerpop.gremlin.structure.Graph tinkerGraph = BenchmarkGraphs.create(graph);
+        jungGraph = Adapters.graph(adapter, tinkerGraph);
+
+        List<Vertex> vertices = IteratorUtils.toList(tinkerGraph.vertices());
+        List<Edge> edges = IteratorUtils.toList(tinkerGraph.edges());
+        Random random = new Random(7);
+        sources = new Vertex[SAMPLES];
+        targets = new Vertex[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            // Half of the findEdge lookups hit an existing edge
+            Edge edge = edges.get(random.nextInt(edges.size()));
+            sources[i] = edge.outVertex();
+            targets[i] = i % 2 == 0 ? edge.inVertex() : vertices.get(random.nextInt(vertices.size()));
+        }
+    }
+
+    private static int touch(Iterable<?> elements) {
+        int count = 0;
+        for (Object element : elements) {
+            if (element != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int getOutEdges() {
+        int total = 0;
+        for (Vertex vertex : sources) {
+            total += touch(jungGraph.getOutEdges(vertex));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int getInEdges() {
+        int total = 0;
+        for (Vertex vertex : targets) {
+            total += touch(jungGraph.getInEdges(vertex));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int getSuccessors() {
+        int total = 0;
+        for (Vertex vertex : sources) {
+            total += touch(jungGraph.getSuccessors(vertex));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int getNeighbors() {
+        int total = 0;
+        for (Vertex vertex : sources) {
+            total += touch(jungGraph.getNeighbors(vertex));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int getIncidentEdges() {
+        int total = 0;
+        for (Vertex vertex : sources) {
+            total += touch(jungGraph.getIncidentEdges(vertex));
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int outDegree() {
+        int total = 0;
+        for (Vertex vertex : sources) {
+            total += jungGraph.outDegree(vertex);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int findEdge() {
+        int hits = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            if (jungGraph.findEdge(sources[i], targets[i]) != null) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int getVertexCount() {
+        return jungGraph.getVertexCount();
+    }
+
+    @Benchmark
+    public int getEdgeCount() {
+        return jungGraph.getEdgeCount();
+    }
+}
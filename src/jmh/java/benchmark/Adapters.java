@@ -0,0 +1,88 @@
+package benchmark;
+
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.Hypergraph;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+/**
+ * Creates the adapter classes under benchmark.
+ * <p>
+ * The adapters live in the default package, which cannot be imported from a named package, and JMH
+ * refuses benchmarks in the default package. Benchmarks therefore build adapters reflectively and use
+ * them through the JUNG interfaces, which is also how JUNG's algorithms see them.
+ */
+public final class Adapters {
+
+    private Adapters() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Graph<Vertex, Edge> graph(String className, Object... args) {
+        return (Graph<Vertex, Edge>) newInstance(className, args);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Hypergraph<Vertex, Edge> hypergraph(String className, Object... args) {
+        return (Hypergraph<Vertex, Edge>) newInstance(className, args);
+    }
+
+    public static Object newInstance(String className, Object... args) {
+        try {
+            Class<?> type = Class.forName(className);
+            for (java.lang.reflect.Constructor<?> constructor : type.getConstructors()) {
+                if (accepts(constructor.getParameterTypes(), args)) {
+                    return constructor.newInstance(args);
+                }
+            }
+            throw new IllegalArgumentException("No constructor of " + className + " accepts the given arguments");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + className, e);
+        }
+    }
+
+    /**
+     * Calls the public method <code>name</code> of an adapter, e.g. to switch on one of its modes.
+     */
+    public static Object invoke(Object target, String name, Object... args) {
+        try {
+            for (java.lang.reflect.Method method : target.getClass().getMethods()) {
+                if (method.getName().equals(name) && accepts(method.getParameterTypes(), args)) {
+                    return method.invoke(target, args);
+                }
+            }
+            throw new IllegalArgumentException("No method " + name + " of " + target.getClass().getName()
+                    + " accepts the given arguments");
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot call " + name, e);
+        }
+    }
+
+    private static boolean accepts(Class<?>[] parameterTypes, Object[] args) {
+        if (parameterTypes.length != args.length) {
+            return false;
+        }
+        for (int i = 0; i < args.length; i++) {
+            if (!box(parameterTypes[i]).isInstance(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        return type;
+    }
+}
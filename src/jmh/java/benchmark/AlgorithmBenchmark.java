@@ -0,0 +1,83 @@
+package benchmark;
+
+import edu.uci.ics.jung.algorithms.scoring.PageRank;
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraShortestPath;
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end JUNG algorithm runs over the adapters. One invocation is one complete run, so the
+ * larger graphs take seconds to minutes per invocation; narrow the parameters with <code>-p</code>.
+ * Betweenness centrality is in {@link CentralityBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AlgorithmBenchmark {
+
+    private static final int DIJKSTRA_ORIGINS = 16;
+
+    @Param({"modern", "er-10k", "pl-10k", "er-1m", "pl-1m", "er-10m", "pl-10m"})
+    public String graph;
+
+    @Param({"JungGraph", "CompiledJungGraph"})
+    public String adapter;
+
+    private Graph<Vertex, Edge> jungGraph;
+    private Vertex[] origins;
+
+    @Setup
+    public void setUp() {
+        org.apache.tinkerpop.gremlin.structure.Graph tinkerGraph = BenchmarkGraphs.create(graph);
+        jungGraph = Adapters.graph(adapter, tinkerGraph);
+
+        List<Vertex> vertices = IteratorUtils.toList(tinkerGraph.vertices());
+        Random random = new Random(7);
+        origins = new Vertex[DIJKSTRA_ORIGINS];
+        for (int i = 0; i < DIJKSTRA_ORIGINS; i++) {
+            origins[i] = vertices.get(random.nextInt(vertices.size()));
+        }
+    }
+
+    @Benchmark
+    public double pageRank() {
+        PageRank<Vertex, Edge> pageRank = new PageRank<>(jungGraph, 0.15d);
+        pageRank.evaluate();
+        return pageRank.getVertexScore(origins[0]);
+    }
+
+    /**
+     * Full single-source distance maps from a fixed sample of origins.
+     */
+    @Benchmark
+    public int dijkstra() {
+        DijkstraShortestPath<Vertex, Edge> dijkstra = new DijkstraShortestPath<>(jungGraph, false);
+        int reached = 0;
+        for (Vertex origin : origins) {
+            Map<Vertex, Number> distances = dijkstra.getDistanceMap(origin);
+            reached += distances.size();
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,50 @@
+package benchmark;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+
+/**
+ * Named benchmark graphs, used as the value of the <code>graph</code> parameter of the benchmarks:
+ * <ul>
+ * <li/><code>modern</code>: <code>TinkerFactory.createModern()</code>;
+ * <li/><code>er-10k</code>, <code>er-1m</code>, <code>er-10m</code>: Erdos-Renyi graphs with that many
+ * edges and an average out-degree of 10;
+ * <li/><code>pl-10k</code>, <code>pl-1m</code>, <code>pl-10m</code>: Barabasi-Albert power-law graphs
+ * with that many edges, 5 out-edges per vertex.
+ * </ul>
+ * The 10M-edge TinkerGraphs need a heap of several gigabytes, e.g. <code>-jvmArgs -Xmx16g</code>.
+ */
+public final class BenchmarkGraphs {
+
+    private static final long SEED = 42;
+
+    private BenchmarkGraphs() {
+    }
+
+    public static Graph create(String name) {
+        if ("modern".equals(name)) {
+            return TinkerFactory.createModern();
+        }
+        String[] parts = name.split("-");
+        if (parts.length == 2) {
+            int edges = parseEdgeCount(parts[1]);
+            if ("er".equals(parts[0])) {
+                return SyntheticGraphs.erdosRenyi(edges / 10, edges, SEED);
+            }
+            if ("pl".equals(parts[0])) {
+                return SyntheticGraphs.powerLaw(edges / 5, 5, SEED);
+            }
+        }
+        throw new IllegalArgumentException("Unknown benchmark graph: " + name);
+    }
+
+    private static int parseEdgeCount(String size) {
+        if (size.endsWith("k")) {
+            return Integer.parseInt(size.substring(0, size.length() - 1)) * 1000;
+        }
+        if (size.endsWith("m")) {
+            return Integer.parseInt(size.substring(0, size.length() - 1)) * 1000000;
+        }
+        return Integer.parseInt(size);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import edu.uci.ics.jung.algorithms.scoring.BetweennessCentrality;
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JUNG's <code>BetweennessCentrality</code> over the adapters. It is O(VE), so only the 10K-edge graphs
+ * run by default; pass e.g. <code>-p graph=er-1m</code> for the larger ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class CentralityBenchmark {
+
+    @Param({"modern", "er-10k", "pl-10k"})
+    public String graph;
+
+    @Param({"JungGraph", "CompiledJungGraph"})
+    public String adapter;
+
+    private Graph<Vertex, Edge> jungGraph;
+    private Vertex probe;
+
+    @Setup
+    public void setUp() {
+        org.apache.tinkerpop.gremlin.structure.Graph tinkerGraph = BenchmarkGraphs.create(graph);
+        jungGraph = Adapters.graph(adapter, tinkerGraph);
+        probe = tinkerGraph.vertices().next();
+    }
+
+    @Benchmark
+    public double betweenness() {
+        BetweennessCentrality<Vertex, Edge> betweenness = new BetweennessCentrality<>(jungGraph);
+        return betweenness.getVertexScore(probe);
+    }
+}
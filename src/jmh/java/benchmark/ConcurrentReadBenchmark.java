@@ -0,0 +1,124 @@
+package benchmark;
+
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one adapter in concurrent read mode shared by 1, 2, 4 and all available threads. Every
+ * read asks for the out-degree and successors of a vertex and looks up an edge from it, half of which
+ * exist. Throughput that stays flat as threads are added points at contention inside the adapter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentReadBenchmark {
+
+    private static final int PAIRS = 1 << 16;
+    private static final int READS = 1024;
+
+    @Param({"er-1m", "pl-1m"})
+    public String graph;
+
+    @Param({"JungGraph", "CachingJungGraph", "CompiledJungGraph"})
+    public String adapter;
+
+    private Graph<Vertex, Edge> jungGraph;
+    private Vertex[] first;
+    private Vertex[] second;
+
+    /**
+     * Where each thread is in the shared list of pairs; threads start at different places.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next = ThreadLocalRandom.current().nextInt(PAIRS);
+    }
+
+    @Setup
+    public void setUp() {
+        org.apache.tinkerpop.gremlin.structure.Graph tinkerGraph = BenchmarkGraphs.create(graph);
+        if ("CachingJungGraph".equals(adapter)) {
+            jungGraph = Adapters.graph(adapter, tinkerGraph, 256L << 20);
+        } else {
+            jungGraph = Adapters.graph(adapter, tinkerGraph);
+        }
+        Adapters.invoke(jungGraph, "setConcurrentReads", true);
+
+        List<Vertex> vertices = IteratorUtils.toList(tinkerGraph.vertices());
+        List<Edge> edges = IteratorUtils.toList(tinkerGraph.edges());
+        Random random = new Random(7);
+        first = new Vertex[PAIRS];
+        second = new Vertex[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            Edge edge = edges.get(random.nextInt(edges.size()));
+            first[i] = edge.outVertex();
+            second[i] = i % 2 == 0 ? edge.inVertex() : vertices.get(random.nextInt(vertices.size()));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    @OperationsPerInvocation(READS)
+    public int threads1(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Threads(2)
+    @OperationsPerInvocation(READS)
+    public int threads2(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    @OperationsPerInvocation(READS)
+    public int threads4(Cursor cursor) {
+        return read(cursor);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    @OperationsPerInvocation(READS)
+    public int threadsMax(Cursor cursor) {
+        return read(cursor);
+    }
+
+    private int read(Cursor cursor) {
+        int sum = 0;
+        int next = cursor.next;
+        for (int i = 0; i < READS; i++) {
+            int pair = next++ & (PAIRS - 1);
+            Vertex vertex = first[pair];
+            sum += jungGraph.outDegree(vertex) + jungGraph.getSuccessors(vertex).size();
+            if (jungGraph.findEdge(vertex, second[pair]) != null) {
+                sum++;
+            }
+        }
+        cursor.next = next;
+        return sum;
+    }
+}
@@ -0,0 +1,136 @@
+package benchmark;
+
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call latency of <code>containsVertex</code>/<code>containsEdge</code>: the Gremlin traversal the
+ * adapter used to build on every call, the direct <code>graph.vertices(id)</code> lookup of
+ * <code>JungGraph</code>, and the snapshot id map of <code>CompiledJungGraph</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainsBenchmark {
+
+    private static final int LOOKUPS = 1024;
+
+    @Param({"modern", "pl-1m"})
+    public String graph;
+
+    private org.apache.tinkerpop.gremlin.structure.Graph tinkerGraph;
+    private Graph<Vertex, Edge> jungGraph;
+    private Graph<Vertex, Edge> compiledGraph;
+    private Vertex[] vertices;
+    private Edge[] edges;
+
+    @Setup
+    public void setUp() {
+        tinkerGraph = BenchmarkGraphs.create(graph);
+        jungGraph = Adapters.graph("JungGraph", tinkerGraph);
+        compiledGraph = Adapters.graph("CompiledJungGraph", tinkerGraph);
+
+        List<Vertex> vertexList = IteratorUtils.toList(tinkerGraph.vertices());
+        List<Edge> edgeList = IteratorUtils.toList(tinkerGraph.edges());
+        Random random = new Random(7);
+        vertices = new Vertex[LOOKUPS];
+        edges = new Edge[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            vertices[i] = vertexList.get(random.nextInt(vertexList.size()));
+            edges[i] = edgeList.get(random.nextInt(edgeList.size()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int containsVertexTraversal() {
+        int hits = 0;
+        for (Vertex vertex : vertices) {
+            if (tinkerGraph.traversal().V().hasId(vertex.id()).hasNext()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int containsVertex() {
+        int hits = 0;
+        for (Vertex vertex : vertices) {
+            if (jungGraph.containsVertex(vertex)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int containsVertexCompiled() {
+        int hits = 0;
+        for (Vertex vertex : vertices) {
+            if (compiledGraph.containsVertex(vertex)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int containsEdgeTraversal() {
+        int hits = 0;
+        for (Edge edge : edges) {
+            if (tinkerGraph.traversal().E().hasId(edge.id()).hasNext()) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int containsEdge() {
+        int hits = 0;
+        for (Edge edge : edges) {
+            if (jungGraph.containsEdge(edge)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int containsEdgeCompiled() {
+        int hits = 0;
+        for (Edge edge : edges) {
+            if (compiledGraph.containsEdge(edge)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,170 @@
+package benchmark;
+
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming neighbour predicates of <code>JungGraph</code> with the list-copying
+ * implementation they replaced. Run with <code>-prof gc</code> to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NeighborPredicateBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    @Param({"modern", "pl-1m"})
+    public String graph;
+
+    /**
+     * 0 measures the streaming fallback, anything else the EdgeIndex path.
+     */
+    @Param({"0"})
+    public int edgeIndexCapacity;
+
+    private Graph<Vertex, Edge> jungGraph;
+    private Vertex[] first;
+    private Vertex[] second;
+    private Edge[] edges;
+
+    @Setup
+    public void setUp() {
+        org.apache.tinkerpop.gremlin.structure.Graph tinkerGraph = BenchmarkGraphs.create(graph);
+        jungGraph = Adapters.graph("JungGraph", tinkerGraph, edgeIndexCapacity);
+
+        List<Vertex> vertices = IteratorUtils.toList(tinkerGraph.vertices());
+        List<Edge> edgeList = IteratorUtils.toList(tinkerGraph.edges());
+        Random random = new Random(7);
+        first = new Vertex[PAIRS];
+        second = new Vertex[PAIRS];
+        edges = new Edge[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            // Half of the pairs are connected, so both the early exit and the full scan are measured
+            Edge edge = edgeList.get(random.nextInt(edgeList.size()));
+            first[i] = edge.outVertex();
+            second[i] = i % 2 == 0 ? edge.inVertex() : vertices.get(random.nextInt(vertices.size()));
+            edges[i] = edge;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isNeighbor() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (jungGraph.isNeighbor(first[i], second[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isNeighborCopying() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            Vertex v1 = first[i];
+            if (new HashSet<>(IteratorUtils.toList(v1.vertices(Direction.BOTH))).contains(second[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isIncident() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (jungGraph.isIncident(second[i], edges[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isIncidentCopying() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (IteratorUtils.toList(second[i].edges(Direction.BOTH)).contains(edges[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isSuccessor() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (jungGraph.isSuccessor(first[i], second[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isSuccessorCopying() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (IteratorUtils.toList(first[i].vertices(Direction.OUT)).contains(second[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isPredecessor() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (jungGraph.isPredecessor(second[i], first[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isPredecessorCopying() {
+        int hits = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            if (IteratorUtils.toList(second[i].vertices(Direction.IN)).contains(first[i])) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
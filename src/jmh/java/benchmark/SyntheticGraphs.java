@@ -0,0 +1,67 @@
+package benchmark;
+
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.Random;
+
+/**
+ * Generators for benchmark graphs. All generators are deterministic for a given seed.
+ */
+public final class SyntheticGraphs {
+
+    public static final String EDGE_LABEL = "link";
+
+    private SyntheticGraphs() {
+    }
+
+    /**
+     * Directed Erdos-Renyi G(n, m) graph: <code>edgeCount</code> edges between uniformly chosen
+     * distinct endpoints. Degrees are close to Poisson distributed, with no hubs.
+     */
+    public static Graph erdosRenyi(int vertexCount, int edgeCount, long seed) {
+        Random random = new Random(seed);
+        Graph graph = TinkerGraph.open();
+        Vertex[] vertices = new Vertex[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            vertices[v] = graph.addVertex();
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            int source = random.nextInt(vertexCount);
+            int target = random.nextInt(vertexCount - 1);
+            if (target >= source) {
+                target++;
+            }
+            vertices[source].addEdge(EDGE_LABEL, vertices[target]);
+        }
+        return graph;
+    }
+
+    /**
+     * Barabasi-Albert preferential attachment: every new vertex links to <code>edgesPerVertex</code>
+     * existing vertices chosen with probability proportional to their degree, giving a power-law
+     * degree distribution with a few large hubs.
+     */
+    public static Graph powerLaw(int vertexCount, int edgesPerVertex, long seed) {
+        Random random = new Random(seed);
+        Graph graph = TinkerGraph.open();
+        Vertex[] vertices = new Vertex[vertexCount];
+        // Every edge endpoint is recorded once, so a uniform pick from it is a degree-weighted pick
+        int[] endpoints = new int[2 * vertexCount * edgesPerVertex];
+        int endpointCount = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            vertices[v] = graph.addVertex();
+            int links = Math.min(v, edgesPerVertex);
+            // Targets are drawn from the endpoints recorded before this vertex, so it never links to itself
+            int existing = endpointCount;
+            for (int i = 0; i < links; i++) {
+                int target = existing == 0 ? random.nextInt(v) : endpoints[random.nextInt(existing)];
+                vertices[v].addEdge(EDGE_LABEL, vertices[target]);
+                endpoints[endpointCount++] = v;
+                endpoints[endpointCount++] = target;
+            }
+        }
+        return graph;
+    }
+}
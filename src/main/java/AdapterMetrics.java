@@ -0,0 +1,214 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link MethodMetrics} of every method instrumented by {@link InstrumentedJungGraph}.
+ * <p>
+ * The time of the copying collection methods of a {@link JungHyperGraph} is split into Tinkerpop iteration
+ * and copying; see {@link MethodMetrics}.
+ * <p>
+ * Recording can be switched off at runtime with {@link #setEnabled(boolean)}; the instrumented graph then
+ * only reads one volatile flag per call. {@link #registerMBeans(String)} publishes one MBean per method
+ * under <code>JungHyperGraph:type=AdapterMetrics,graph=&lt;name&gt;,method=&lt;method&gt;</code>.
+ */
+public class AdapterMetrics {
+
+    /**
+     * The instrumented adapter methods.
+     */
+    public enum Method {
+        GET_VERTICES("getVertices"),
+        GET_EDGES("getEdges"),
+        GET_OUT_EDGES("getOutEdges"),
+        GET_IN_EDGES("getInEdges"),
+        GET_INCIDENT_EDGES("getIncidentEdges"),
+        GET_SUCCESSORS("getSuccessors"),
+        GET_PREDECESSORS("getPredecessors"),
+        GET_NEIGHBORS("getNeighbors"),
+        FIND_EDGE("findEdge"),
+        FIND_EDGE_SET("findEdgeSet"),
+        CONTAINS_VERTEX("containsVertex"),
+        CONTAINS_EDGE("containsEdge"),
+        GET_VERTEX_COUNT("getVertexCount"),
+        GET_EDGE_COUNT("getEdgeCount"),
+        GET_NEIGHBOR_COUNT("getNeighborCount"),
+        GET_SUCCESSOR_COUNT("getSuccessorCount"),
+        GET_PREDECESSOR_COUNT("getPredecessorCount"),
+        DEGREE("degree"),
+        IN_DEGREE("inDegree"),
+        OUT_DEGREE("outDegree");
+
+        private final String methodName;
+
+        Method(String methodName) {
+            this.methodName = methodName;
+        }
+
+        public String getMethodName() {
+            return methodName;
+        }
+    }
+
+    // Rough heap costs with compressed references
+    private static final int COLLECTION_BYTES = 40;
+    private static final int LIST_SLOT_BYTES = 5;
+    private static final int SET_ENTRY_BYTES = 40;
+
+    private final Map<Method, MethodMetrics> metrics = new EnumMap<>(Method.class);
+    private final List<ObjectName> registered = new ArrayList<>();
+    private volatile boolean enabled = true;
+
+    // Iteration and copy nanos reported by the adapter during the current call on each thread
+    private final ThreadLocal<long[]> phases = new ThreadLocal<long[]>() {
+        @Override
+        protected long[] initialValue() {
+            return new long[2];
+        }
+    };
+
+    public AdapterMetrics() {
+        for (Method method : Method.values()) {
+            metrics.put(method, new MethodMetrics(method.getMethodName()));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switches recording on or off. Recorded values are kept while recording is off.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public MethodMetrics get(Method method) {
+        return metrics.get(method);
+    }
+
+    /**
+     * Records a call to a method that returns a number or a single element.
+     */
+    void record(Method method, long startNanos) {
+        metrics.get(method).record(System.nanoTime() - startNanos, 0, 0, 0, 0);
+    }
+
+    /**
+     * Starts a call to a collection method on this thread, discarding phases reported outside of one.
+     *
+     * @return the start time to pass to {@link #record(Method, long, Collection)}
+     */
+    long start() {
+        long[] current = phases.get();
+        current[0] = 0;
+        current[1] = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Adds the time a {@link JungHyperGraph} spent in Tinkerpop iterators and copying elements to the
+     * collection method running on this thread.
+     */
+    void recordPhases(long iterationNanos, long copyNanos) {
+        long[] current = phases.get();
+        current[0] += iterationNanos;
+        current[1] += copyNanos;
+    }
+
+    /**
+     * Records a call that returned <code>result</code>, with the phases reported since {@link #start()}.
+     * Views that copy nothing, such as {@link LazyCollection}s and the lists of a {@link CompiledJungGraph},
+     * count no elements.
+     */
+    void record(Method method, long startNanos, Collection<?> result) {
+        long nanos = System.nanoTime() - startNanos;
+        long[] current = phases.get();
+        long iterated = current[0];
+        long copied = current[1];
+        current[0] = 0;
+        current[1] = 0;
+        if (result == null || result instanceof LazyCollection
+                || result instanceof AbstractList && !(result instanceof ArrayList)) {
+            metrics.get(method).record(nanos, iterated, copied, 0, 0);
+            return;
+        }
+        int size = result.size();
+        long bytes = COLLECTION_BYTES + (long) size * (result instanceof Set ? SET_ENTRY_BYTES : LIST_SLOT_BYTES);
+        metrics.get(method).record(nanos, iterated, copied, size, bytes);
+    }
+
+    /**
+     * Returns the current values of every method that has been called, in declaration order.
+     */
+    public List<MethodMetrics.Snapshot> snapshot() {
+        List<MethodMetrics.Snapshot> snapshot = new ArrayList<>();
+        for (MethodMetrics methodMetrics : metrics.values()) {
+            MethodMetrics.Snapshot values = methodMetrics.snapshot();
+            if (values.getCalls() > 0) {
+                snapshot.add(values);
+            }
+        }
+        return snapshot;
+    }
+
+    public void reset() {
+        for (MethodMetrics methodMetrics : metrics.values()) {
+            methodMetrics.reset();
+        }
+    }
+
+    /**
+     * Registers one MBean per method with the platform MBean server.
+     *
+     * @param graphName distinguishes the metrics of several graphs in one JVM
+     */
+    public synchronized void registerMBeans(String graphName) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (MethodMetrics methodMetrics : metrics.values()) {
+                ObjectName name = new ObjectName("JungHyperGraph:type=AdapterMetrics,graph="
+                        + ObjectName.quote(graphName) + ",method=" + methodMetrics.getMethod());
+                server.registerMBean(methodMetrics, name);
+                registered.add(name);
+            }
+        } catch (JMException e) {
+            unregisterMBeans();
+            String msg = "Could not register adapter metrics for " + graphName;
+            throw new IllegalStateException(msg, e);
+        }
+    }
+
+    /**
+     * Removes the MBeans registered by {@link #registerMBeans(String)}.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already unregistered by someone else
+            }
+        }
+        registered.clear();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("AdapterMetrics");
+        for (MethodMetrics.Snapshot values : snapshot()) {
+            builder.append(System.lineSeparator()).append("  ").append(values);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,295 @@
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least-recently-used cache of the IN, OUT and BOTH edges of vertices, keyed by vertex id and bounded
+ * by an estimate of its heap footprint. Used by {@link CachingJungGraph}.
+ * <p>
+ * The estimate counts a fixed overhead per entry plus one reference per cached edge. Backends that
+ * create edge objects on every read keep those objects alive while they are cached, so leave headroom
+ * in the budget for them. Entries larger than the whole budget are never cached.
+ * <p>
+ * Large caches are split into stripes by vertex id, each with its own lock, least-recently-used order,
+ * statistics and share of the budget, so that threads reading different vertices do not wait for each
+ * other; an entry then has to fit the share of its stripe.
+ */
+public class AdjacencyCache {
+
+    // Rough heap costs with compressed references: map entry, key and array header; array slot
+    private static final int ENTRY_BYTES = 96;
+    private static final int EDGE_BYTES = 4;
+
+    // Every stripe gets at least this much of the budget, so small caches keep one exact LRU order
+    private static final long MIN_STRIPE_BYTES = 4L << 20;
+    private static final int MAX_STRIPES = 16;
+
+    private final long maxBytes;
+    private final Stripe[] stripes;
+
+    /**
+     * @param maxBytes the estimated heap the cached adjacency may take
+     */
+    public AdjacencyCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            String msg = "The cache budget must be positive: " + maxBytes;
+            throw new IllegalArgumentException(msg);
+        }
+        this.maxBytes = maxBytes;
+        int count = Integer.highestOneBit((int) Math.max(1, Math.min(MAX_STRIPES, maxBytes / MIN_STRIPE_BYTES)));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(maxBytes / count + (i < maxBytes % count ? 1 : 0));
+        }
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the number of independently locked stripes the cache is split into.
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the cached edges of <code>vertex</code> in <code>direction</code> and marks them as
+     * recently used, or returns <code>null</code> on a miss.
+     */
+    public Edge[] get(Vertex vertex, Direction direction) {
+        Object id = vertex.id();
+        return stripe(id).get(new Key(id, direction));
+    }
+
+    /**
+     * Returns <code>true</code> if the edges of <code>vertex</code> in <code>direction</code> are cached,
+     * without counting a hit or miss or changing the eviction order.
+     */
+    public boolean contains(Vertex vertex, Direction direction) {
+        Object id = vertex.id();
+        return stripe(id).contains(new Key(id, direction));
+    }
+
+    /**
+     * Like {@link #get(Vertex, Direction)}, but without counting a hit or miss.
+     */
+    Edge[] peek(Vertex vertex, Direction direction) {
+        Object id = vertex.id();
+        return stripe(id).peek(new Key(id, direction));
+    }
+
+    /**
+     * Caches the edges of <code>vertex</code> in <code>direction</code>, evicting the least recently
+     * used entries until the cache fits its budget again.
+     */
+    public void put(Vertex vertex, Direction direction, Edge[] edges) {
+        Object id = vertex.id();
+        stripe(id).put(new Key(id, direction), edges);
+    }
+
+    /**
+     * Drops the cached edges of <code>vertex</code> in every direction.
+     */
+    public void invalidate(Vertex vertex) {
+        Object id = vertex.id();
+        stripe(id).invalidate(id);
+    }
+
+    public void invalidateAll() {
+        for (Stripe stripe : stripes) {
+            stripe.invalidateAll();
+        }
+    }
+
+    public Stats getStats() {
+        long hits = 0;
+        long misses = 0;
+        long evictions = 0;
+        int size = 0;
+        long estimatedBytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                hits += stripe.hits;
+                misses += stripe.misses;
+                evictions += stripe.evictions;
+                size += stripe.entries.size();
+                estimatedBytes += stripe.bytes;
+            }
+        }
+        return new Stats(hits, misses, evictions, size, estimatedBytes, maxBytes);
+    }
+
+    public void resetStats() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.hits = 0;
+                stripe.misses = 0;
+                stripe.evictions = 0;
+            }
+        }
+    }
+
+    private Stripe stripe(Object id) {
+        int hash = id.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static long sizeOf(Edge[] edges) {
+        return ENTRY_BYTES + (long) EDGE_BYTES * edges.length;
+    }
+
+    /**
+     * The entries of one share of the vertex ids, guarded by the stripe's own lock. The statistics are
+     * kept per stripe too, so that lookups on different stripes share no memory that they write to.
+     */
+    private static final class Stripe {
+        private final long maxBytes;
+        private final LinkedHashMap<Key, Edge[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long bytes;
+        private long hits;
+        private long misses;
+        private long evictions;
+
+        Stripe(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized Edge[] get(Key key) {
+            Edge[] edges = entries.get(key);
+            if (edges == null) {
+                misses++;
+            } else {
+                hits++;
+            }
+            return edges;
+        }
+
+        synchronized Edge[] peek(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized boolean contains(Key key) {
+            return entries.containsKey(key);
+        }
+
+        void put(Key key, Edge[] edges) {
+            long size = sizeOf(edges);
+            if (size > maxBytes) {
+                return;
+            }
+            synchronized (this) {
+                Edge[] previous = entries.put(key, edges);
+                bytes += size - (previous == null ? 0 : sizeOf(previous));
+                Iterator<Map.Entry<Key, Edge[]>> eldest = entries.entrySet().iterator();
+                while (bytes > maxBytes) {
+                    bytes -= sizeOf(eldest.next().getValue());
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+
+        synchronized void invalidate(Object id) {
+            for (Direction direction : Direction.values()) {
+                Edge[] previous = entries.remove(new Key(id, direction));
+                if (previous != null) {
+                    bytes -= sizeOf(previous);
+                }
+            }
+        }
+
+        synchronized void invalidateAll() {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    private static final class Key {
+        private final Object id;
+        private final Direction direction;
+
+        Key(Object id, Direction direction) {
+            this.id = id;
+            this.direction = direction;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return direction == other.direction && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return id.hashCode() * 31 + direction.ordinal();
+        }
+    }
+
+    /**
+     * Immutable copy of the cache statistics.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long estimatedBytes;
+        private final long maxBytes;
+
+        Stats(long hits, long misses, long evictions, int entries, long estimatedBytes, long maxBytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.estimatedBytes = estimatedBytes;
+            this.maxBytes = maxBytes;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Returns the number of lookups that had to read the backing graph.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d, misses=%d, hit rate=%.1f%%, evictions=%d, entries=%d, ~%d of %d KB",
+                    hits, misses, 100 * getHitRate(), evictions, entries, estimatedBytes / 1024, maxBytes / 1024);
+        }
+    }
+}
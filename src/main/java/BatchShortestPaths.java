@@ -0,0 +1,298 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-source shortest paths over a {@link CsrGraph}: one Dijkstra search per origin, following
+ * edges in their direction like JUNG's <code>DijkstraShortestPath</code> on a <code>JungGraph</code>.
+ * <p>
+ * Origins are handed out to a fixed number of worker threads. Each worker owns one set of primitive
+ * distance, parent and heap arrays that it reuses for every origin it processes, resetting only the
+ * entries the previous search touched. Paths are streamed to a {@link PathConsumer} as soon as a search
+ * finishes; use {@link #toEdges(int[])} to turn them into Tinkerpop edges.
+ */
+public class BatchShortestPaths {
+
+    /**
+     * Receives the shortest paths found by a batch run. Called concurrently from the worker threads.
+     */
+    public interface PathConsumer {
+        /**
+         * @param origin   snapshot index of the origin vertex
+         * @param target   snapshot index of a vertex reachable from <code>origin</code>
+         * @param distance the length of the path
+         * @param edges    ordinals of the edges on the path, in order from <code>origin</code>
+         */
+        void accept(int origin, int target, double distance, int[] edges);
+    }
+
+    private final CsrGraph snapshot;
+    private final double[] edgeWeights;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a service in which every edge has length 1, as in an unweighted JUNG Dijkstra search.
+     */
+    public BatchShortestPaths(CsrGraph snapshot) {
+        this(snapshot, null);
+    }
+
+    /**
+     * @param edgeWeights non-negative edge lengths indexed by edge ordinal, or <code>null</code> for length 1
+     * @throws IllegalArgumentException if there is not one weight per edge, or a weight is negative or NaN
+     */
+    public BatchShortestPaths(CsrGraph snapshot, double[] edgeWeights) {
+        if (edgeWeights != null && edgeWeights.length != snapshot.edgeCount()) {
+            String msg = "Expected " + snapshot.edgeCount() + " edge weights, got " + edgeWeights.length;
+            throw new IllegalArgumentException(msg);
+        }
+        if (edgeWeights != null) {
+            for (int e = 0; e < edgeWeights.length; e++) {
+                // Also rejects NaN, which compares false to everything
+                if (!(edgeWeights[e] >= 0)) {
+                    String msg = "Expected a non-negative weight for edge " + e + ", got " + edgeWeights[e];
+                    throw new IllegalArgumentException(msg);
+                }
+            }
+        }
+        this.snapshot = snapshot;
+        this.edgeWeights = edgeWeights;
+    }
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String msg = "Parallelism must be at least 1: " + parallelism;
+            throw new IllegalArgumentException(msg);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Runs one search from every vertex of the snapshot.
+     */
+    public void runAll(PathConsumer consumer) {
+        int[] origins = new int[snapshot.vertexCount()];
+        for (int i = 0; i < origins.length; i++) {
+            origins[i] = i;
+        }
+        run(origins, consumer);
+    }
+
+    /**
+     * Runs one search from each of <code>origins</code>.
+     *
+     * @throws IllegalArgumentException if a vertex is not part of the snapshot
+     */
+    public void run(Collection<Vertex> origins, PathConsumer consumer) {
+        int[] indices = new int[origins.size()];
+        int i = 0;
+        for (Vertex origin : origins) {
+            int index = snapshot.indexOf(origin);
+            if (index < 0) {
+                throw new IllegalArgumentException("Vertex " + origin + " not an element of this graph");
+            }
+            indices[i++] = index;
+        }
+        run(indices, consumer);
+    }
+
+    /**
+     * Runs one search from each of the snapshot indices in <code>origins</code> and blocks until all are done.
+     */
+    public void run(final int[] origins, final PathConsumer consumer) {
+        int workers = Math.min(parallelism, Math.max(1, origins.length));
+        final AtomicInteger nextOrigin = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    Search search = new Search(snapshot.vertexCount());
+                    for (int i = nextOrigin.getAndIncrement(); i < origins.length; i = nextOrigin.getAndIncrement()) {
+                        search.run(origins[i]);
+                        search.emit(origins[i], consumer);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing shortest paths", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Resolves edge ordinals to the snapshot's Tinkerpop edges.
+     */
+    public List<Edge> toEdges(int[] edges) {
+        List<Edge> path = new ArrayList<>(edges.length);
+        for (int edge : edges) {
+            path.add(snapshot.edge(edge));
+        }
+        return path;
+    }
+
+    private double weight(int edge) {
+        return edgeWeights == null ? 1.0 : edgeWeights[edge];
+    }
+
+    /**
+     * Per-worker Dijkstra state, reused across origins.
+     */
+    private class Search {
+        private final double[] distance;
+        private final int[] parentEdge;
+        private final int[] heap;
+        private final int[] heapPosition;
+        private final int[] settled;
+        private int heapSize;
+        private int settledCount;
+
+        Search(int vertexCount) {
+            distance = new double[vertexCount];
+            parentEdge = new int[vertexCount];
+            heap = new int[vertexCount];
+            heapPosition = new int[vertexCount];
+            settled = new int[vertexCount];
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            Arrays.fill(heapPosition, -1);
+        }
+
+        void run(int origin) {
+            // Undo the previous search; every vertex it reached was settled
+            for (int i = 0; i < settledCount; i++) {
+                distance[settled[i]] = Double.POSITIVE_INFINITY;
+            }
+            settledCount = 0;
+            heapSize = 0;
+
+            distance[origin] = 0;
+            parentEdge[origin] = -1;
+            push(origin);
+            while (heapSize > 0) {
+                int u = pop();
+                settled[settledCount++] = u;
+                double base = distance[u];
+                for (int slot = snapshot.outStart(u), end = snapshot.outEnd(u); slot < end; slot++) {
+                    int edge = snapshot.outEdge(slot);
+                    int v = snapshot.outTarget(slot);
+                    double candidate = base + weight(edge);
+                    if (candidate < distance[v]) {
+                        boolean queued = heapPosition[v] >= 0;
+                        distance[v] = candidate;
+                        parentEdge[v] = edge;
+                        if (queued) {
+                            siftUp(heapPosition[v]);
+                        } else {
+                            push(v);
+                        }
+                    }
+                }
+            }
+        }
+
+        void emit(int origin, PathConsumer consumer) {
+            // settled[0] is the origin itself
+            for (int i = 1; i < settledCount; i++) {
+                int target = settled[i];
+                int length = 0;
+                for (int v = target; v != origin; v = snapshot.edgeSource(parentEdge[v])) {
+                    length++;
+                }
+                int[] path = new int[length];
+                for (int v = target; v != origin; v = snapshot.edgeSource(parentEdge[v])) {
+                    path[--length] = parentEdge[v];
+                }
+                consumer.accept(origin, target, distance[target], path);
+            }
+        }
+
+        private void push(int vertex) {
+            heap[heapSize] = vertex;
+            heapPosition[vertex] = heapSize;
+            siftUp(heapSize++);
+        }
+
+        private int pop() {
+            int top = heap[0];
+            heapPosition[top] = -1;
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapPosition[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int position) {
+            int vertex = heap[position];
+            double key = distance[vertex];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (distance[heap[parent]] <= key) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                heapPosition[heap[position]] = position;
+                position = parent;
+            }
+            heap[position] = vertex;
+            heapPosition[vertex] = position;
+        }
+
+        private void siftDown(int position) {
+            int vertex = heap[position];
+            double key = distance[vertex];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && distance[heap[child + 1]] < distance[heap[child]]) {
+                    child++;
+                }
+                if (distance[heap[child]] >= key) {
+                    break;
+                }
+                heap[position] = heap[child];
+                heapPosition[heap[position]] = position;
+                position = child;
+            }
+            heap[position] = vertex;
+            heapPosition[vertex] = position;
+        }
+    }
+}
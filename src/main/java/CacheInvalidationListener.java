@@ -0,0 +1,71 @@
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.event.MutationListener;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+/**
+ * Keeps the caches of a {@link JungHyperGraph} in step with a mutable graph by applying every
+ * topology change to them as a delta.
+ * <p>
+ * Register it on the traversal source used for writes:
+ * <pre>
+ * EventStrategy strategy = EventStrategy.build().addListener(new CacheInvalidationListener(jungGraph)).create();
+ * GraphTraversalSource g = GraphTraversalSource.build().with(strategy).create(graph);
+ * </pre>
+ * Property changes do not affect topology and are ignored. Mutations made through the adapter itself in
+ * mutable mode do not go through the traversal source and are applied by the adapter directly.
+ */
+public class CacheInvalidationListener implements MutationListener {
+
+    private final JungHyperGraph jungGraph;
+
+    public CacheInvalidationListener(JungHyperGraph jungGraph) {
+        this.jungGraph = jungGraph;
+    }
+
+    @Override
+    public void vertexAdded(Vertex vertex) {
+        jungGraph.onVertexAdded(vertex);
+    }
+
+    @Override
+    public void vertexRemoved(Vertex vertex) {
+        // Fired before the vertex is dropped, so its incident edges can still be read
+        jungGraph.onVertexRemoved(vertex);
+    }
+
+    @Override
+    public void edgeAdded(Edge edge) {
+        jungGraph.onEdgeAdded(edge);
+    }
+
+    @Override
+    public void edgeRemoved(Edge edge) {
+        jungGraph.onEdgeRemoved(edge);
+    }
+
+    @Override
+    public void vertexPropertyChanged(Vertex element, Property oldValue, Object setValue, Object... vertexPropertyKeyValues) {
+    }
+
+    @Override
+    public void vertexPropertyRemoved(VertexProperty vertexProperty) {
+    }
+
+    @Override
+    public void edgePropertyChanged(Edge element, Property oldValue, Object setValue) {
+    }
+
+    @Override
+    public void edgePropertyRemoved(Edge element, Property property) {
+    }
+
+    @Override
+    public void vertexPropertyPropertyChanged(VertexProperty element, Property oldValue, Object setValue) {
+    }
+
+    @Override
+    public void vertexPropertyPropertyRemoved(VertexProperty element, Property property) {
+    }
+}
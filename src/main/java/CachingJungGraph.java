@@ -0,0 +1,196 @@
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.collections4.Transformer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * {@link JungGraph} that answers adjacency queries from an {@link AdjacencyCache}, for disk- or
+ * network-backed graphs where every <code>vertex.edges(direction)</code> is a round trip to storage.
+ * <p>
+ * The first query for the IN, OUT or BOTH edges of a vertex reads them from the wrapped adapter and
+ * caches them; later queries, including the successor, predecessor, neighbour, degree and
+ * <code>findEdge</code> methods, are served from the cache until the entry is evicted. Wrapping a
+ * {@link FilteredJungGraph} caches only the edges of the view.
+ * <p>
+ * Changes to the backing graph are not visible while an entry is cached. Deltas reported through the
+ * <code>on*</code> hooks, e.g. by a {@link CacheInvalidationListener}, drop the entries of the affected
+ * vertices; other changes need {@link #invalidateCache()}.
+ */
+public class CachingJungGraph extends JungGraph {
+
+    private final JungHyperGraph delegate;
+    private final AdjacencyCache cache;
+
+    /**
+     * Caches the adjacency of a plain {@link JungGraph} view of <code>graph</code>.
+     *
+     * @param maxBytes the estimated heap the cached adjacency may take
+     */
+    public CachingJungGraph(Graph graph, long maxBytes) {
+        this(new JungGraph(graph, 0), maxBytes);
+    }
+
+    /**
+     * Caches the adjacency of <code>delegate</code>.
+     *
+     * @param maxBytes the estimated heap the cached adjacency may take
+     */
+    public CachingJungGraph(JungHyperGraph delegate, long maxBytes) {
+        this(delegate, new AdjacencyCache(maxBytes));
+    }
+
+    /**
+     * Reads adjacency through <code>cache</code>, which may be filled ahead of time.
+     */
+    public CachingJungGraph(JungHyperGraph delegate, AdjacencyCache cache) {
+        // findEdge scans the cached OUT edges, so the live edge index is never needed
+        super(delegate.getGraph(), 0);
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    public AdjacencyCache getCache() {
+        return cache;
+    }
+
+    public JungHyperGraph getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Drops every cached entry, e.g. after changes made to the backing graph.
+     */
+    public void invalidateCache() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Always fails: mutate the backing graph through an uncached {@link JungGraph}, then invalidate
+     * the cache or report the changes through the <code>on*</code> hooks.
+     */
+    @Override
+    public void setMutable(boolean mutable) {
+        if (mutable) {
+            String msg = "A caching view is read-only";
+            throw new UnsupportedOperationException(msg);
+        }
+    }
+
+    /**
+     * Prepares the delegate, which keeps the counts. Degrees and adjacency are then served by the
+     * cache, whose stripes let concurrent readers fill it without waiting for each other's misses.
+     */
+    @Override
+    protected void prepareConcurrentReads() {
+        delegate.setConcurrentReads(true);
+    }
+
+    // Counts and indexes are kept by the delegate; deltas drop the cache entries they make stale
+
+    @Override
+    public void onVertexAdded(Vertex vertex) {
+        delegate.onVertexAdded(vertex);
+        invalidateDegreeIndex();
+    }
+
+    @Override
+    public void onVertexRemoved(Vertex vertex) {
+        // The incident edges lead to the neighbours whose entries are now stale
+        Edge[] incident = cache.peek(vertex, Direction.BOTH);
+        if (incident == null) {
+            cache.invalidateAll();
+        } else {
+            for (Edge edge : incident) {
+                cache.invalidate(edge.outVertex());
+                cache.invalidate(edge.inVertex());
+            }
+            cache.invalidate(vertex);
+        }
+        delegate.onVertexRemoved(vertex);
+        invalidateDegreeIndex();
+    }
+
+    @Override
+    public void onEdgeAdded(Edge edge) {
+        cache.invalidate(edge.outVertex());
+        cache.invalidate(edge.inVertex());
+        delegate.onEdgeAdded(edge);
+        invalidateDegreeIndex();
+    }
+
+    @Override
+    public void onEdgeRemoved(Edge edge) {
+        cache.invalidate(edge.outVertex());
+        cache.invalidate(edge.inVertex());
+        delegate.onEdgeRemoved(edge);
+        invalidateDegreeIndex();
+    }
+
+    @Override
+    public int getVertexCount() {
+        return delegate.getVertexCount();
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return delegate.getEdgeCount();
+    }
+
+    /**
+     * Returns the edges of <code>vertex</code> in <code>direction</code>, reading and caching them on a miss.
+     */
+    protected Edge[] cachedEdges(Vertex vertex, Direction direction) {
+        Edge[] edges = cache.get(vertex, direction);
+        if (edges == null) {
+            List<Edge> loaded = IteratorUtils.toList(delegate.edges(vertex, direction));
+            edges = loaded.toArray(new Edge[loaded.size()]);
+            cache.put(vertex, direction, edges);
+        }
+        return edges;
+    }
+
+    @Override
+    protected Iterator<Vertex> allVertices() {
+        return delegate.allVertices();
+    }
+
+    @Override
+    protected Iterator<Edge> allEdges() {
+        return delegate.allEdges();
+    }
+
+    @Override
+    protected boolean includes(Edge edge) {
+        return delegate.includes(edge);
+    }
+
+    @Override
+    protected Iterator<Edge> edges(Vertex vertex, Direction direction) {
+        return IteratorUtils.arrayIterator(cachedEdges(vertex, direction));
+    }
+
+    @Override
+    protected Iterator<Vertex> vertices(final Vertex vertex, final Direction direction) {
+        return IteratorUtils.transformedIterator(edges(vertex, direction), new Transformer<Edge, Vertex>() {
+            @Override
+            public Vertex transform(Edge edge) {
+                return opposite(vertex, direction, edge);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsVertex(Vertex vertex) {
+        return delegate.containsVertex(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(Edge edge) {
+        return delegate.containsEdge(edge);
+    }
+}
@@ -0,0 +1,386 @@
+import edu.uci.ics.jung.graph.Hypergraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link JungGraph} that compiles the Tinkerpop graph once into a {@link CsrSnapshot} and
+ * answers every adjacency query from its primitive arrays instead of calling back into Tinkerpop.
+ * It can also run over a {@link MappedCsrSnapshot} reopened from a file.
+ * <p>
+ * Collections returned by this class are read-only views over the snapshot; nothing is copied.
+ * Changes made to the backing graph after construction are not visible.
+ * <p>
+ * Like the rest of the adapter, this class follows the JUNG contract for a vertex that is not in the
+ * snapshot: its adjacency collections are <code>null</code>, and its degrees and neighbour,
+ * predecessor and successor counts are 0.
+ */
+public class CompiledJungGraph extends JungGraph {
+
+    private final CsrGraph snapshot;
+
+    public CompiledJungGraph(Graph graph) {
+        this(graph, CsrSnapshot.compile(graph));
+    }
+
+    /**
+     * @param graph    the graph the snapshot was taken from, or <code>null</code> for a
+     *                 {@link MappedCsrSnapshot} that resolves elements without one
+     * @param snapshot the topology to answer queries from
+     */
+    public CompiledJungGraph(Graph graph, CsrGraph snapshot) {
+        // The snapshot answers findEdge itself, so the live edge index is never needed
+        super(graph, 0);
+        this.snapshot = snapshot;
+    }
+
+    public CsrGraph getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the snapshot itself; nothing is copied.
+     */
+    @Override
+    public CsrGraph toIntGraph() {
+        return snapshot;
+    }
+
+    /**
+     * Always fails: a snapshot is a point-in-time copy. Use a {@link JungGraph} in mutable mode
+     * for a graph that changes, and compile it again when a fresh snapshot is needed.
+     */
+    @Override
+    public void setMutable(boolean mutable) {
+        if (mutable) {
+            String msg = "A compiled graph is an immutable snapshot";
+            throw new UnsupportedOperationException(msg);
+        }
+    }
+
+    /**
+     * Does nothing: the snapshot is built in the constructor and never changes, so it is safe to
+     * read from any number of threads as it is.
+     */
+    @Override
+    protected void prepareConcurrentReads() {
+    }
+
+    @Override
+    public Collection<Edge> getEdges() {
+        return snapshot.edgeList();
+    }
+
+    @Override
+    public Collection<Vertex> getVertices() {
+        return snapshot.vertexList();
+    }
+
+    @Override
+    public boolean containsVertex(Vertex vertex) {
+        return snapshot.indexOf(vertex) >= 0;
+    }
+
+    @Override
+    public boolean containsEdge(Edge edge) {
+        return snapshot.indexOf(edge) >= 0;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return snapshot.edgeCount();
+    }
+
+    @Override
+    public int getVertexCount() {
+        return snapshot.vertexCount();
+    }
+
+    @Override
+    public Collection<Vertex> getNeighbors(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        if (v < 0) {
+            return null;
+        }
+        Set<Vertex> neighbors = new HashSet<>();
+        for (int slot = snapshot.outStart(v); slot < snapshot.outEnd(v); slot++) {
+            neighbors.add(snapshot.vertex(snapshot.outTarget(slot)));
+        }
+        for (int slot = snapshot.inStart(v); slot < snapshot.inEnd(v); slot++) {
+            neighbors.add(snapshot.vertex(snapshot.inSource(slot)));
+        }
+        return Collections.unmodifiableSet(neighbors);
+    }
+
+    @Override
+    public Collection<Edge> getIncidentEdges(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        if (v < 0) {
+            return null;
+        }
+        return new IncidentEdgeList(v);
+    }
+
+    @Override
+    public Edge findEdge(Vertex v1, Vertex v2) {
+        int source = snapshot.indexOf(v1);
+        int target = snapshot.indexOf(v2);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int slot = snapshot.findOutSlot(source, target);
+        return slot < 0 ? null : snapshot.edge(snapshot.outEdge(slot));
+    }
+
+    /**
+     * Returns all edges from <code>v1</code> to <code>v2</code>.
+     *
+     * @param v1
+     * @param v2
+     * @return a collection containing all edges that connect <code>v1</code> to <code>v2</code>,
+     * or <code>null</code> if either vertex is not present
+     * @see Hypergraph#findEdge(Object, Object)
+     */
+    @Override
+    public Collection<Edge> findEdgeSet(Vertex v1, Vertex v2) {
+        int source = snapshot.indexOf(v1);
+        int target = snapshot.indexOf(v2);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int first = snapshot.findOutSlot(source, target);
+        if (first < 0) {
+            return Collections.emptySet();
+        }
+        Set<Edge> edgeSet = new HashSet<>();
+        for (int slot = first; slot < snapshot.outEnd(source) && snapshot.outTarget(slot) == target; slot++) {
+            edgeSet.add(snapshot.edge(snapshot.outEdge(slot)));
+        }
+        return edgeSet;
+    }
+
+    @Override
+    public boolean isNeighbor(Vertex v1, Vertex v2) {
+        int a = snapshot.indexOf(v1);
+        int b = snapshot.indexOf(v2);
+        if (a < 0 || b < 0) {
+            return false;
+        }
+        return snapshot.findOutSlot(a, b) >= 0 || snapshot.findOutSlot(b, a) >= 0;
+    }
+
+    @Override
+    public boolean isIncident(Vertex vertex, Edge edge) {
+        int e = snapshot.indexOf(edge);
+        int v = snapshot.indexOf(vertex);
+        return e >= 0 && v >= 0 && (snapshot.edgeSource(e) == v || snapshot.edgeTarget(e) == v);
+    }
+
+    @Override
+    public int degree(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? 0 : snapshot.outDegree(v) + snapshot.inDegree(v);
+    }
+
+    @Override
+    public int getNeighborCount(Vertex vertex) {
+        Collection<Vertex> neighbors = getNeighbors(vertex);
+        return neighbors == null ? 0 : neighbors.size();
+    }
+
+    @Override
+    public Collection<Edge> getEdges(EdgeType edge_type) {
+        return edge_type == getDefaultEdgeType() ? snapshot.edgeList() : Collections.<Edge>emptyList();
+    }
+
+    @Override
+    public int getEdgeCount(EdgeType edge_type) {
+        return edge_type == getDefaultEdgeType() ? snapshot.edgeCount() : 0;
+    }
+
+    @Override
+    public Collection<Edge> getInEdges(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? null : new InEdgeList(v);
+    }
+
+    @Override
+    public Collection<Edge> getOutEdges(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? null : new OutEdgeList(v);
+    }
+
+    @Override
+    public int inDegree(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? 0 : snapshot.inDegree(v);
+    }
+
+    @Override
+    public int outDegree(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? 0 : snapshot.outDegree(v);
+    }
+
+    @Override
+    public Collection<Vertex> getPredecessors(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? null : new PredecessorList(v);
+    }
+
+    @Override
+    public Collection<Vertex> getSuccessors(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? null : new SuccessorList(v);
+    }
+
+    @Override
+    public boolean isPredecessor(Vertex v1, Vertex v2) {
+        int a = snapshot.indexOf(v1);
+        int b = snapshot.indexOf(v2);
+        return a >= 0 && b >= 0 && snapshot.findOutSlot(b, a) >= 0;
+    }
+
+    @Override
+    public boolean isSuccessor(Vertex v1, Vertex v2) {
+        int a = snapshot.indexOf(v1);
+        int b = snapshot.indexOf(v2);
+        return a >= 0 && b >= 0 && snapshot.findOutSlot(a, b) >= 0;
+    }
+
+    @Override
+    public int getPredecessorCount(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? 0 : snapshot.inDegree(v);
+    }
+
+    @Override
+    public int getSuccessorCount(Vertex vertex) {
+        int v = snapshot.indexOf(vertex);
+        return v < 0 ? 0 : snapshot.outDegree(v);
+    }
+
+    private class OutEdgeList extends AbstractList<Edge> {
+        private final int start;
+        private final int size;
+
+        OutEdgeList(int vertex) {
+            this.start = snapshot.outStart(vertex);
+            this.size = snapshot.outEnd(vertex) - start;
+        }
+
+        @Override
+        public Edge get(int index) {
+            return snapshot.edge(snapshot.outEdge(start + checkIndex(index, size)));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class InEdgeList extends AbstractList<Edge> {
+        private final int start;
+        private final int size;
+
+        InEdgeList(int vertex) {
+            this.start = snapshot.inStart(vertex);
+            this.size = snapshot.inEnd(vertex) - start;
+        }
+
+        @Override
+        public Edge get(int index) {
+            return snapshot.edge(snapshot.inEdge(start + checkIndex(index, size)));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * The outgoing edges followed by the incoming ones, the same order as Tinkerpop's Direction.BOTH.
+     */
+    private class IncidentEdgeList extends AbstractList<Edge> {
+        private final int outStart;
+        private final int outSize;
+        private final int inStart;
+        private final int size;
+
+        IncidentEdgeList(int vertex) {
+            this.outStart = snapshot.outStart(vertex);
+            this.outSize = snapshot.outEnd(vertex) - outStart;
+            this.inStart = snapshot.inStart(vertex);
+            this.size = outSize + snapshot.inEnd(vertex) - inStart;
+        }
+
+        @Override
+        public Edge get(int index) {
+            checkIndex(index, size);
+            return snapshot.edge(index < outSize
+                    ? snapshot.outEdge(outStart + index)
+                    : snapshot.inEdge(inStart + index - outSize));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class SuccessorList extends AbstractList<Vertex> {
+        private final int start;
+        private final int size;
+
+        SuccessorList(int vertex) {
+            this.start = snapshot.outStart(vertex);
+            this.size = snapshot.outEnd(vertex) - start;
+        }
+
+        @Override
+        public Vertex get(int index) {
+            return snapshot.vertex(snapshot.outTarget(start + checkIndex(index, size)));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class PredecessorList extends AbstractList<Vertex> {
+        private final int start;
+        private final int size;
+
+        PredecessorList(int vertex) {
+            this.start = snapshot.inStart(vertex);
+            this.size = snapshot.inEnd(vertex) - start;
+        }
+
+        @Override
+        public Vertex get(int index) {
+            return snapshot.vertex(snapshot.inSource(start + checkIndex(index, size)));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static int checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return index;
+    }
+}
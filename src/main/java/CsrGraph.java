@@ -0,0 +1,60 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.List;
+
+/**
+ * {@link IntGraph} stored in compressed-sparse-row (CSR) form, whose slots are read directly by
+ * {@link CompiledJungGraph}, {@link ParallelPageRank} and {@link BatchShortestPaths}.
+ * <p>
+ * For every vertex the OUT slots <code>outStart(v)</code> to <code>outEnd(v)</code> hold its outgoing
+ * edges sorted by target index, and the IN slots its incoming edges sorted by source index.
+ * {@link CsrSnapshot} keeps the arrays on the heap; {@link MappedCsrSnapshot} reads them from a
+ * memory-mapped file.
+ */
+public interface CsrGraph extends IntGraph {
+
+    int outStart(int vertex);
+
+    int outEnd(int vertex);
+
+    /**
+     * Returns the edge ordinal stored in OUT slot <code>slot</code>.
+     */
+    int outEdge(int slot);
+
+    /**
+     * Returns the target vertex index stored in OUT slot <code>slot</code>.
+     */
+    int outTarget(int slot);
+
+    int inStart(int vertex);
+
+    int inEnd(int vertex);
+
+    /**
+     * Returns the edge ordinal stored in IN slot <code>slot</code>.
+     */
+    int inEdge(int slot);
+
+    /**
+     * Returns the source vertex index stored in IN slot <code>slot</code>.
+     */
+    int inSource(int slot);
+
+    /**
+     * Returns the first OUT slot of <code>source</code> whose target is <code>target</code>, or -1.
+     * Parallel edges follow the returned slot.
+     */
+    int findOutSlot(int source, int target);
+
+    /**
+     * Returns a read-only list of the vertices in index order.
+     */
+    List<Vertex> vertexList();
+
+    /**
+     * Returns a read-only list of the edges in ordinal order.
+     */
+    List<Edge> edgeList();
+}
@@ -0,0 +1,367 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable compressed-sparse-row (CSR) snapshot of a Tinkerpop graph.
+ * <p>
+ * Vertices and edges are assigned dense int indices in the order the backing graph returns them.
+ * For every vertex the outgoing edges are stored contiguously in <code>outEdges</code> between
+ * <code>outOffsets[v]</code> and <code>outOffsets[v + 1]</code>, sorted by target index, with the
+ * target of each slot copied into <code>outTargets</code>. Incoming edges are laid out the same way,
+ * sorted by source index. Adjacency queries therefore never touch the backing graph.
+ */
+public final class CsrSnapshot implements CsrGraph {
+
+    private final Vertex[] vertices;
+    private final Edge[] edges;
+    private final Map<Object, Integer> vertexIndex;
+    private final Map<Object, Integer> edgeIndex;
+
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] outTargets;
+
+    private final int[] inOffsets;
+    private final int[] inEdges;
+    private final int[] inSources;
+
+    private CsrSnapshot(Vertex[] vertices, Map<Object, Integer> vertexIndex,
+                        Edge[] edges, Map<Object, Integer> edgeIndex,
+                        int[] edgeSources, int[] edgeTargets) {
+        this.vertices = vertices;
+        this.vertexIndex = vertexIndex;
+        this.edges = edges;
+        this.edgeIndex = edgeIndex;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+
+        int vertexCount = vertices.length;
+        this.outOffsets = new int[vertexCount + 1];
+        this.inOffsets = new int[vertexCount + 1];
+        // Sorting by target then stably by source leaves each OUT row ordered by target, and vice versa.
+        this.outEdges = sortByKey(sortByKey(identity(edges.length), edgeTargets, vertexCount, null),
+                edgeSources, vertexCount, outOffsets);
+        this.inEdges = sortByKey(sortByKey(identity(edges.length), edgeSources, vertexCount, null),
+                edgeTargets, vertexCount, inOffsets);
+        this.outTargets = gather(outEdges, edgeTargets);
+        this.inSources = gather(inEdges, edgeSources);
+    }
+
+    /**
+     * Reads every vertex and edge of <code>graph</code> once and builds a snapshot of its topology.
+     *
+     * @param graph the graph to compile
+     * @return the compiled snapshot
+     */
+    public static CsrSnapshot compile(Graph graph) {
+        return compile(graph.vertices(), graph.edges());
+    }
+
+    /**
+     * Builds a snapshot from an explicit vertex and edge set, e.g. the elements of a {@link FilteredJungGraph}.
+     * Both endpoints of every edge must be among <code>vertexIterator</code>.
+     *
+     * @param vertexIterator the vertices to compile
+     * @param edgeIterator   the edges to compile
+     * @return the compiled snapshot
+     */
+    public static CsrSnapshot compile(Iterator<Vertex> vertexIterator, Iterator<Edge> edgeIterator) {
+        List<Vertex> vertexList = new ArrayList<>();
+        Map<Object, Integer> vertexIndex = new HashMap<>();
+        while (vertexIterator.hasNext()) {
+            Vertex vertex = vertexIterator.next();
+            vertexIndex.put(vertex.id(), vertexList.size());
+            vertexList.add(vertex);
+        }
+
+        List<Edge> edgeList = new ArrayList<>();
+        Map<Object, Integer> edgeIndex = new HashMap<>();
+        int[] sources = new int[16];
+        int[] targets = new int[16];
+        while (edgeIterator.hasNext()) {
+            Edge edge = edgeIterator.next();
+            int ordinal = edgeList.size();
+            if (ordinal == sources.length) {
+                sources = Arrays.copyOf(sources, ordinal * 2);
+                targets = Arrays.copyOf(targets, ordinal * 2);
+            }
+            sources[ordinal] = indexOrFail(vertexIndex, edge.outVertex(), edge);
+            targets[ordinal] = indexOrFail(vertexIndex, edge.inVertex(), edge);
+            edgeIndex.put(edge.id(), ordinal);
+            edgeList.add(edge);
+        }
+
+        int edgeCount = edgeList.size();
+        return new CsrSnapshot(vertexList.toArray(new Vertex[vertexList.size()]), vertexIndex,
+                edgeList.toArray(new Edge[edgeCount]), edgeIndex,
+                Arrays.copyOf(sources, edgeCount), Arrays.copyOf(targets, edgeCount));
+    }
+
+    private static int indexOrFail(Map<Object, Integer> vertexIndex, Vertex vertex, Edge edge) {
+        Integer index = vertexIndex.get(vertex.id());
+        if (index == null) {
+            String msg = "Edge " + edge + " refers to vertex " + vertex + " which is not among the compiled vertices";
+            throw new IllegalStateException(msg);
+        }
+        return index;
+    }
+
+    private static int[] identity(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    private static int[] gather(int[] order, int[] values) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Stable counting sort of <code>order</code> by <code>keys[order[i]]</code>.
+     * When <code>offsets</code> is given it receives the start of every key bucket plus a trailing total.
+     */
+    private static int[] sortByKey(int[] order, int[] keys, int keyCount, int[] offsets) {
+        int[] starts = offsets != null ? offsets : new int[keyCount + 1];
+        for (int item : order) {
+            starts[keys[item] + 1]++;
+        }
+        for (int k = 0; k < keyCount; k++) {
+            starts[k + 1] += starts[k];
+        }
+        int[] cursor = Arrays.copyOf(starts, keyCount);
+        int[] sorted = new int[order.length];
+        for (int item : order) {
+            sorted[cursor[keys[item]]++] = item;
+        }
+        return sorted;
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the dense index of <code>vertex</code>, or -1 if it was not part of the compiled graph.
+     */
+    @Override
+    public int indexOf(Vertex vertex) {
+        Integer index = vertexIndex.get(vertex.id());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the ordinal of <code>edge</code>, or -1 if it was not part of the compiled graph.
+     */
+    @Override
+    public int indexOf(Edge edge) {
+        Integer index = edgeIndex.get(edge.id());
+        return index == null ? -1 : index;
+    }
+
+    @Override
+    public Vertex vertex(int index) {
+        return vertices[index];
+    }
+
+    @Override
+    public Edge edge(int ordinal) {
+        return edges[ordinal];
+    }
+
+    @Override
+    public int edgeSource(int edgeOrdinal) {
+        return edgeSources[edgeOrdinal];
+    }
+
+    @Override
+    public int edgeTarget(int edgeOrdinal) {
+        return edgeTargets[edgeOrdinal];
+    }
+
+    @Override
+    public int outStart(int vertex) {
+        return outOffsets[vertex];
+    }
+
+    @Override
+    public int outEnd(int vertex) {
+        return outOffsets[vertex + 1];
+    }
+
+    /**
+     * Returns the edge ordinal stored in OUT slot <code>slot</code>.
+     */
+    @Override
+    public int outEdge(int slot) {
+        return outEdges[slot];
+    }
+
+    /**
+     * Returns the target vertex index stored in OUT slot <code>slot</code>.
+     */
+    @Override
+    public int outTarget(int slot) {
+        return outTargets[slot];
+    }
+
+    @Override
+    public int inStart(int vertex) {
+        return inOffsets[vertex];
+    }
+
+    @Override
+    public int inEnd(int vertex) {
+        return inOffsets[vertex + 1];
+    }
+
+    /**
+     * Returns the edge ordinal stored in IN slot <code>slot</code>.
+     */
+    @Override
+    public int inEdge(int slot) {
+        return inEdges[slot];
+    }
+
+    /**
+     * Returns the source vertex index stored in IN slot <code>slot</code>.
+     */
+    @Override
+    public int inSource(int slot) {
+        return inSources[slot];
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return outOffsets[vertex + 1] - outOffsets[vertex];
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return inOffsets[vertex + 1] - inOffsets[vertex];
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return outDegree(vertex) + inDegree(vertex);
+    }
+
+    @Override
+    public void outNeighbors(int vertex, IntConsumer consumer) {
+        for (int slot = outOffsets[vertex], end = outOffsets[vertex + 1]; slot < end; slot++) {
+            consumer.accept(outTargets[slot]);
+        }
+    }
+
+    @Override
+    public void inNeighbors(int vertex, IntConsumer consumer) {
+        for (int slot = inOffsets[vertex], end = inOffsets[vertex + 1]; slot < end; slot++) {
+            consumer.accept(inSources[slot]);
+        }
+    }
+
+    @Override
+    public void outEdges(int vertex, IntConsumer consumer) {
+        for (int slot = outOffsets[vertex], end = outOffsets[vertex + 1]; slot < end; slot++) {
+            consumer.accept(outEdges[slot]);
+        }
+    }
+
+    @Override
+    public void inEdges(int vertex, IntConsumer consumer) {
+        for (int slot = inOffsets[vertex], end = inOffsets[vertex + 1]; slot < end; slot++) {
+            consumer.accept(inEdges[slot]);
+        }
+    }
+
+    /**
+     * Returns the first OUT slot of <code>source</code> whose target is <code>target</code>, or -1.
+     * Rows are sorted by target, so this is a binary search and parallel edges follow the returned slot.
+     */
+    @Override
+    public int findOutSlot(int source, int target) {
+        int low = outOffsets[source];
+        int high = outOffsets[source + 1];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (outTargets[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < outOffsets[source + 1] && outTargets[low] == target ? low : -1;
+    }
+
+    /**
+     * Returns a read-only list of the vertices in index order, backed by the snapshot.
+     * <code>contains</code> is a hash lookup; JUNG's scorers call it once per vertex and step
+     * through their uniform priors.
+     */
+    @Override
+    public List<Vertex> vertexList() {
+        return new AbstractList<Vertex>() {
+            @Override
+            public Vertex get(int index) {
+                return vertices[index];
+            }
+
+            @Override
+            public int size() {
+                return vertices.length;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Vertex && CsrSnapshot.this.indexOf((Vertex) o) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only list of the edges in ordinal order, backed by the snapshot.
+     * <code>contains</code> is a hash lookup.
+     */
+    @Override
+    public List<Edge> edgeList() {
+        return new AbstractList<Edge>() {
+            @Override
+            public Edge get(int index) {
+                return edges[index];
+            }
+
+            @Override
+            public int size() {
+                return edges.length;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Edge && CsrSnapshot.this.indexOf((Edge) o) >= 0;
+            }
+        };
+    }
+}
@@ -0,0 +1,183 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IN and OUT degree of every vertex, computed in one pass over <code>graph.edges()</code> and held in
+ * primitive int arrays keyed by a dense vertex index. BOTH degrees are the sum of the two, which is what
+ * <code>vertex.edges(Direction.BOTH)</code> returns (a self-loop is counted once in each direction).
+ * <p>
+ * The index can be kept current with the <code>vertexAdded</code>, <code>vertexRemoved</code>,
+ * <code>edgeAdded</code> and <code>edgeRemoved</code> deltas, each of which costs O(1) amortised.
+ * Deltas must come from a single writer; readers may run concurrently with it.
+ */
+public final class DegreeIndex {
+
+    // Rough per-entry cost of a HashMap<Object, Integer>: node, table slot and boxed value
+    private static final int MAP_ENTRY_BYTES = 64;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Map<Object, Integer> vertexIndex;
+    // Replaced when they grow, so readers always see arrays at least as long as any published index
+    private volatile int[] inDegrees;
+    private volatile int[] outDegrees;
+    // Indices of removed vertices are not reused; nextIndex only grows
+    private int nextIndex;
+    private volatile int vertexCount;
+    private volatile int edgeCount;
+    private final long buildNanos;
+
+    private DegreeIndex(Map<Object, Integer> vertexIndex, int[] inDegrees, int[] outDegrees,
+                        int edgeCount, long buildNanos) {
+        this.vertexIndex = vertexIndex;
+        this.inDegrees = inDegrees;
+        this.outDegrees = outDegrees;
+        this.nextIndex = inDegrees.length;
+        this.vertexCount = inDegrees.length;
+        this.edgeCount = edgeCount;
+        this.buildNanos = buildNanos;
+    }
+
+    /**
+     * Assigns dense indices to the vertices of <code>graph</code> and counts the degrees of all of them.
+     */
+    public static DegreeIndex build(Graph graph) {
+        return build(graph.vertices(), graph.edges());
+    }
+
+    /**
+     * Counts degrees over an explicit vertex and edge set, e.g. the elements of a {@link FilteredJungGraph}.
+     * Both endpoints of every edge must be among <code>vertices</code>.
+     */
+    public static DegreeIndex build(Iterator<Vertex> vertices, Iterator<Edge> edges) {
+        long start = System.nanoTime();
+        Map<Object, Integer> vertexIndex = new ConcurrentHashMap<>();
+        while (vertices.hasNext()) {
+            vertexIndex.put(vertices.next().id(), vertexIndex.size());
+        }
+
+        int[] inDegrees = new int[vertexIndex.size()];
+        int[] outDegrees = new int[vertexIndex.size()];
+        int edgeCount = 0;
+        while (edges.hasNext()) {
+            Edge edge = edges.next();
+            outDegrees[vertexIndex.get(edge.outVertex().id())]++;
+            inDegrees[vertexIndex.get(edge.inVertex().id())]++;
+            edgeCount++;
+        }
+        return new DegreeIndex(vertexIndex, inDegrees, outDegrees, edgeCount, System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the dense index of <code>vertex</code>, or -1 if it is not indexed.
+     */
+    public int indexOf(Vertex vertex) {
+        Integer index = vertexIndex.get(vertex.id());
+        return index == null ? -1 : index;
+    }
+
+    public int inDegree(int vertex) {
+        return inDegrees[vertex];
+    }
+
+    public int outDegree(int vertex) {
+        return outDegrees[vertex];
+    }
+
+    public int degree(int vertex) {
+        return inDegrees[vertex] + outDegrees[vertex];
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Adds <code>vertex</code> with no edges. Does nothing if it is already indexed.
+     */
+    public synchronized void vertexAdded(Vertex vertex) {
+        if (vertexIndex.containsKey(vertex.id())) {
+            return;
+        }
+        if (nextIndex == inDegrees.length) {
+            int length = Math.max(16, nextIndex + (nextIndex >> 1));
+            inDegrees = Arrays.copyOf(inDegrees, length);
+            outDegrees = Arrays.copyOf(outDegrees, length);
+        }
+        vertexIndex.put(vertex.id(), nextIndex++);
+        vertexCount++;
+    }
+
+    /**
+     * Drops <code>vertex</code>. Its incident edges must have been removed with {@link #edgeRemoved(Edge)} first.
+     */
+    public synchronized void vertexRemoved(Vertex vertex) {
+        Integer index = vertexIndex.remove(vertex.id());
+        if (index != null) {
+            inDegrees[index] = 0;
+            outDegrees[index] = 0;
+            vertexCount--;
+        }
+    }
+
+    /**
+     * Counts <code>edge</code> in the degrees of its endpoints.
+     *
+     * @return <code>false</code> if an endpoint is not indexed, in which case nothing is changed
+     */
+    public synchronized boolean edgeAdded(Edge edge) {
+        return updateDegrees(edge, 1);
+    }
+
+    /**
+     * Removes <code>edge</code> from the degrees of its endpoints.
+     *
+     * @return <code>false</code> if an endpoint is not indexed, in which case nothing is changed
+     */
+    public synchronized boolean edgeRemoved(Edge edge) {
+        return updateDegrees(edge, -1);
+    }
+
+    private boolean updateDegrees(Edge edge, int delta) {
+        Integer source = vertexIndex.get(edge.outVertex().id());
+        Integer target = vertexIndex.get(edge.inVertex().id());
+        if (source == null || target == null) {
+            return false;
+        }
+        outDegrees[source] += delta;
+        inDegrees[target] += delta;
+        edgeCount += delta;
+        return true;
+    }
+
+    /**
+     * Returns the wall-clock time it took to build this index, in nanoseconds.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Returns an estimate of the heap used by this index, in bytes.
+     * The vertex ids themselves are shared with the graph and not counted.
+     */
+    public long estimatedBytes() {
+        long arrays = 2L * (ARRAY_HEADER_BYTES + 4L * inDegrees.length);
+        return arrays + (long) MAP_ENTRY_BYTES * vertexIndex.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("DegreeIndex[vertices=%d, edges=%d, built in %.3f ms, ~%d KB]",
+                vertexCount, edgeCount, buildNanos / 1e6, estimatedBytes() / 1024);
+    }
+}
@@ -0,0 +1,314 @@
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index of outgoing edges keyed by (source id, target id), used to answer <code>findEdge</code>
+ * and the neighbour predicates without scanning every outgoing edge of the source vertex.
+ * <p>
+ * The row for a source vertex is built from the outgoing edges the adapter returns for it, so that
+ * subclasses that override <code>edges(vertex, direction)</code> index the same edges they expose. It is
+ * built the first time it is queried, or up front through {@link #warm(Iterator)}. Memory is bounded by
+ * <code>capacity</code>, the maximum number of edges held over all rows; the least recently used
+ * rows are evicted first, and a row that alone exceeds the capacity is never stored.
+ * <p>
+ * Large indexes are split into stripes by source id, each with its own lock, least-recently-used order
+ * and share of the capacity, so that threads reading different rows do not wait for each other. Rows
+ * are read from the graph outside of any lock; two threads missing the same row may both read it.
+ */
+public class EdgeIndex {
+
+    /**
+     * A capacity suited to large graphs: about a million edges, on the order of 100 MB of heap.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    // Every stripe holds at least this many edges, so small indexes keep one exact LRU order
+    private static final int MIN_STRIPE_CAPACITY = 1 << 16;
+    private static final int MAX_STRIPES = 16;
+
+    private final JungHyperGraph graph;
+    private final int capacity;
+    private final Stripe[] stripes;
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * @param graph    the adapter whose outgoing edges are indexed; it is only read once rows are built
+     * @param capacity the maximum number of edges held over all rows
+     */
+    public EdgeIndex(JungHyperGraph graph, int capacity) {
+        if (capacity <= 0) {
+            String msg = "Capacity must be positive: " + capacity;
+            throw new IllegalArgumentException(msg);
+        }
+        this.graph = graph;
+        this.capacity = capacity;
+        int count = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, capacity / MIN_STRIPE_CAPACITY)));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(capacity / count + (i < capacity % count ? 1 : 0));
+        }
+    }
+
+    /**
+     * Returns the edges from <code>source</code> to <code>target</code>, or an empty list if there are none.
+     */
+    public List<Edge> edges(Vertex source, Vertex target) {
+        Map<Object, List<Edge>> row = stripe(source.id()).row(source);
+        List<Edge> edges = row.get(target.id());
+        return edges == null ? Collections.<Edge>emptyList() : edges;
+    }
+
+    /**
+     * Indexes the vertices returned by <code>vertices</code> until the capacity is reached. Rows that
+     * would evict other rows are skipped.
+     *
+     * @return the number of rows built
+     */
+    public int warm(Iterator<Vertex> vertices) {
+        int built = 0;
+        while (vertices.hasNext() && size.get() < capacity) {
+            Vertex vertex = vertices.next();
+            if (stripe(vertex.id()).warm(vertex)) {
+                built++;
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Drops the row of the vertex with id <code>sourceId</code>, e.g. after one of its outgoing edges changed.
+     */
+    public void invalidate(Object sourceId) {
+        stripe(sourceId).invalidate(sourceId);
+    }
+
+    /**
+     * Adds <code>edge</code> to the row of its source, if that row is held. The row is copied rather than
+     * changed in place, since lists returned by {@link #edges(Vertex, Vertex)} may still be in use.
+     */
+    public void edgeAdded(Edge edge) {
+        stripe(edge.outVertex().id()).edgeAdded(edge);
+    }
+
+    /**
+     * Removes <code>edge</code> from the row of its source, if that row is held; see {@link #edgeAdded(Edge)}.
+     */
+    public void edgeRemoved(Edge edge) {
+        stripe(edge.outVertex().id()).edgeRemoved(edge);
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Returns the number of edges currently held by the index.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of independently locked stripes the index is split into.
+     */
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    private Stripe stripe(Object sourceId) {
+        int hash = sourceId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private Map<Object, List<Edge>> scan(Vertex source) {
+        Map<Object, List<Edge>> row = new HashMap<>();
+        Iterator<Edge> edges = graph.edges(source, Direction.OUT);
+        while (edges.hasNext()) {
+            Edge edge = edges.next();
+            Object targetId = edge.inVertex().id();
+            List<Edge> parallel = row.get(targetId);
+            if (parallel == null) {
+                row.put(targetId, Collections.singletonList(edge));
+            } else {
+                if (parallel.size() == 1) {
+                    parallel = new ArrayList<>(parallel);
+                    row.put(targetId, parallel);
+                }
+                parallel.add(edge);
+            }
+        }
+        return row;
+    }
+
+    private static int sizeOf(Map<Object, List<Edge>> row) {
+        int rowSize = 0;
+        for (List<Edge> parallel : row.values()) {
+            rowSize += parallel.size();
+        }
+        return rowSize;
+    }
+
+    /**
+     * The rows of one share of the source ids, guarded by the stripe's own lock.
+     */
+    private final class Stripe {
+        private final int capacity;
+        private final LinkedHashMap<Object, Map<Object, List<Edge>>> rows = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Object, Integer> rowSizes = new HashMap<>();
+        private int size;
+        // Bumped by every change, so that a row read from a graph that changed meanwhile is not stored
+        private long version;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        Map<Object, List<Edge>> row(Vertex source) {
+            Object sourceId = source.id();
+            long readVersion;
+            synchronized (this) {
+                Map<Object, List<Edge>> row = rows.get(sourceId);
+                if (row != null) {
+                    return row;
+                }
+                readVersion = version;
+            }
+            Map<Object, List<Edge>> row = scan(source);
+            synchronized (this) {
+                Map<Object, List<Edge>> stored = rows.get(sourceId);
+                if (stored != null) {
+                    return stored;
+                }
+                if (version == readVersion) {
+                    store(sourceId, row, true);
+                }
+            }
+            return row;
+        }
+
+        boolean warm(Vertex vertex) {
+            Object sourceId = vertex.id();
+            synchronized (this) {
+                if (size >= capacity || rows.containsKey(sourceId)) {
+                    return false;
+                }
+            }
+            Map<Object, List<Edge>> row = scan(vertex);
+            synchronized (this) {
+                return !rows.containsKey(sourceId) && store(sourceId, row, false) >= 0;
+            }
+        }
+
+        synchronized void invalidate(Object sourceId) {
+            version++;
+            rows.remove(sourceId);
+            Integer rowSize = rowSizes.remove(sourceId);
+            if (rowSize != null) {
+                resize(-rowSize);
+            }
+        }
+
+        synchronized void edgeAdded(Edge edge) {
+            version++;
+            Object sourceId = edge.outVertex().id();
+            Map<Object, List<Edge>> row = rows.get(sourceId);
+            if (row == null) {
+                return;
+            }
+            if (size >= capacity) {
+                invalidate(sourceId);
+                return;
+            }
+            Object targetId = edge.inVertex().id();
+            List<Edge> parallel = row.get(targetId);
+            List<Edge> updated;
+            if (parallel == null) {
+                updated = Collections.singletonList(edge);
+            } else {
+                updated = new ArrayList<>(parallel.size() + 1);
+                updated.addAll(parallel);
+                updated.add(edge);
+            }
+            Map<Object, List<Edge>> updatedRow = new HashMap<>(row);
+            updatedRow.put(targetId, updated);
+            rows.put(sourceId, updatedRow);
+            rowSizes.put(sourceId, rowSizes.get(sourceId) + 1);
+            resize(1);
+        }
+
+        synchronized void edgeRemoved(Edge edge) {
+            version++;
+            Object sourceId = edge.outVertex().id();
+            Map<Object, List<Edge>> row = rows.get(sourceId);
+            if (row == null) {
+                return;
+            }
+            Object targetId = edge.inVertex().id();
+            List<Edge> parallel = row.get(targetId);
+            if (parallel == null || !parallel.contains(edge)) {
+                return;
+            }
+            Map<Object, List<Edge>> updatedRow = new HashMap<>(row);
+            if (parallel.size() == 1) {
+                updatedRow.remove(targetId);
+            } else {
+                List<Edge> updated = new ArrayList<>(parallel);
+                updated.remove(edge);
+                updatedRow.put(targetId, updated);
+            }
+            rows.put(sourceId, updatedRow);
+            rowSizes.put(sourceId, rowSizes.get(sourceId) - 1);
+            resize(-1);
+        }
+
+        synchronized void clear() {
+            version++;
+            rows.clear();
+            rowSizes.clear();
+            resize(-size);
+        }
+
+        /**
+         * Stores <code>row</code> if it fits, evicting least recently used rows as needed and allowed.
+         *
+         * @return the number of edges in the row, or -1 if it was not stored
+         */
+        private int store(Object sourceId, Map<Object, List<Edge>> row, boolean evict) {
+            int rowSize = sizeOf(row);
+            if (rowSize > capacity || !evict && size + rowSize > capacity) {
+                return -1;
+            }
+            Iterator<Map.Entry<Object, Map<Object, List<Edge>>>> eldest = rows.entrySet().iterator();
+            while (size + rowSize > capacity && eldest.hasNext()) {
+                Object evicted = eldest.next().getKey();
+                eldest.remove();
+                resize(-rowSizes.remove(evicted));
+            }
+            rows.put(sourceId, row);
+            rowSizes.put(sourceId, rowSize);
+            resize(rowSize);
+            return rowSize;
+        }
+
+        private void resize(int delta) {
+            size += delta;
+            EdgeIndex.this.size.addAndGet(delta);
+        }
+    }
+}
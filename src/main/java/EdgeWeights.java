@@ -0,0 +1,131 @@
+import org.apache.commons.collections15.Transformer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+
+/**
+ * Edge weights read once from a numeric edge property into a primitive array indexed by edge ordinal.
+ * <p>
+ * The ordinals are those of a {@link CsrGraph} snapshot, which is compiled for adapters that do not have
+ * one. Algorithms that work on ordinals, such as {@link BatchShortestPaths} over {@link #getSnapshot()},
+ * read {@link #getWeights()} or {@link #weight(int)} at array speed.
+ * <p>
+ * As a JUNG <code>Transformer</code> it hands weighted algorithms such as <code>DijkstraShortestPath</code>
+ * and <code>PrimMinimumSpanningTree</code> a weight per edge without a property lookup on every
+ * relaxation. Each {@link #transform(Edge)} still resolves the ordinal from the edge id through the
+ * snapshot's id index, a hash lookup, since a Tinkerpop edge does not carry its ordinal.
+ * Edges without the property get the default weight; later changes to the property are not visible.
+ */
+public final class EdgeWeights implements Transformer<Edge, Double> {
+
+    private final CsrGraph snapshot;
+    private final double[] weights;
+    private final int missingCount;
+
+    private EdgeWeights(CsrGraph snapshot, double[] weights, int missingCount) {
+        this.snapshot = snapshot;
+        this.weights = weights;
+        this.missingCount = missingCount;
+    }
+
+    /**
+     * Loads <code>key</code> for every edge of <code>snapshot</code>, using the snapshot's edge ordinals.
+     *
+     * @param snapshot      the snapshot whose edges are weighted
+     * @param key           the name of the numeric edge property
+     * @param defaultWeight the weight of edges without the property
+     * @return the loaded weights
+     */
+    public static EdgeWeights load(CsrGraph snapshot, String key, double defaultWeight) {
+        double[] weights = new double[snapshot.edgeCount()];
+        int missing = 0;
+        for (int i = 0; i < weights.length; i++) {
+            Property<Object> property = snapshot.edge(i).property(key);
+            if (property.isPresent()) {
+                weights[i] = toWeight(snapshot.edge(i), key, property.value());
+            } else {
+                weights[i] = defaultWeight;
+                missing++;
+            }
+        }
+        return new EdgeWeights(snapshot, weights, missing);
+    }
+
+    /**
+     * Loads <code>key</code> for every edge of <code>graph</code>. The edges are numbered by the snapshot of a
+     * {@link CompiledJungGraph}; any other adapter, including a {@link FilteredJungGraph}, is compiled into a
+     * {@link CsrSnapshot} of the edges it exposes first.
+     *
+     * @param graph         the graph whose edges are weighted
+     * @param key           the name of the numeric edge property
+     * @param defaultWeight the weight of edges without the property
+     * @return the loaded weights
+     */
+    public static EdgeWeights load(JungHyperGraph graph, String key, double defaultWeight) {
+        if (graph instanceof CompiledJungGraph) {
+            return load(((CompiledJungGraph) graph).getSnapshot(), key, defaultWeight);
+        }
+        return load(CsrSnapshot.compile(graph.allVertices(), graph.allEdges()), key, defaultWeight);
+    }
+
+    private static double toWeight(Edge edge, String key, Object value) {
+        if (!(value instanceof Number)) {
+            String msg = "Property " + key + " of edge " + edge + " is not numeric: " + value;
+            throw new IllegalArgumentException(msg);
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    /**
+     * Returns the ordinal of <code>edge</code>, or -1 if its weight was not loaded.
+     */
+    public int ordinalOf(Edge edge) {
+        return snapshot.indexOf(edge);
+    }
+
+    /**
+     * Returns the weight of the edge with ordinal <code>ordinal</code>.
+     */
+    public double weight(int ordinal) {
+        return weights[ordinal];
+    }
+
+    /**
+     * Returns the weight of <code>edge</code>.
+     *
+     * @throws IllegalArgumentException if the weight of <code>edge</code> was not loaded
+     */
+    @Override
+    public Double transform(Edge edge) {
+        int ordinal = ordinalOf(edge);
+        if (ordinal < 0) {
+            String msg = "Edge " + edge + " has no loaded weight";
+            throw new IllegalArgumentException(msg);
+        }
+        return weights[ordinal];
+    }
+
+    /**
+     * Returns the snapshot whose edge ordinals index the weights.
+     */
+    public CsrGraph getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the weights indexed by edge ordinal. The array is shared, not copied, and must not be modified.
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    public int size() {
+        return weights.length;
+    }
+
+    /**
+     * Returns the number of edges that had no value for the property and got the default weight.
+     */
+    public int getMissingCount() {
+        return missingCount;
+    }
+}
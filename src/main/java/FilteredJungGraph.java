@@ -0,0 +1,196 @@
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.collections4.Predicate;
+import org.apache.commons.collections4.Transformer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * {@link JungGraph} view of the subgraph of a Tinkerpop graph selected by edge labels, vertex labels
+ * and element predicates, so that JUNG algorithms can run on e.g. only the <code>knows</code> edges
+ * without copying the graph.
+ * <p>
+ * A vertex is in the view if its label is one of the vertex labels and it satisfies the vertex predicate.
+ * An edge is in the view if its label is one of the edge labels, it satisfies the edge predicate and both
+ * of its endpoints are in the view. A <code>null</code> label collection or predicate accepts everything.
+ * <p>
+ * Edge labels are passed down to <code>vertex.edges(direction, labels...)</code>, so the backing graph
+ * never loads edges with other labels during adjacency queries. The edge index is disabled: with the
+ * labels pushed down, <code>findEdge</code> scans only the matching out-edges. Vertex and edge counts
+ * are computed once per view, and {@link #buildDegreeIndex()} counts degrees within the view.
+ */
+public class FilteredJungGraph extends JungGraph {
+
+    private final String[] edgeLabels;
+    private final Set<String> edgeLabelSet;
+    private final Set<String> vertexLabelSet;
+    private final Predicate<? super Vertex> vertexPredicate;
+    private final Predicate<? super Edge> edgePredicate;
+
+    public FilteredJungGraph(Graph graph, Collection<String> edgeLabels, Collection<String> vertexLabels) {
+        this(graph, edgeLabels, vertexLabels, null, null);
+    }
+
+    /**
+     * @param graph           the graph to wrap
+     * @param edgeLabels      the labels of the edges in the view, or <code>null</code> for all labels
+     * @param vertexLabels    the labels of the vertices in the view, or <code>null</code> for all labels
+     * @param vertexPredicate the condition on vertices in the view, or <code>null</code> for none
+     * @param edgePredicate   the condition on edges in the view, or <code>null</code> for none
+     */
+    public FilteredJungGraph(Graph graph, Collection<String> edgeLabels, Collection<String> vertexLabels,
+                             Predicate<? super Vertex> vertexPredicate, Predicate<? super Edge> edgePredicate) {
+        super(graph, 0);
+        if (edgeLabels != null && edgeLabels.isEmpty() || vertexLabels != null && vertexLabels.isEmpty()) {
+            // Tinkerpop reads an empty label array as "all labels", the opposite of an empty filter
+            String msg = "Label filters must not be empty; pass null to accept all labels";
+            throw new IllegalArgumentException(msg);
+        }
+        this.edgeLabels = edgeLabels == null ? new String[0] : edgeLabels.toArray(new String[edgeLabels.size()]);
+        this.edgeLabelSet = edgeLabels == null ? null : new HashSet<>(edgeLabels);
+        this.vertexLabelSet = vertexLabels == null ? null : new HashSet<>(vertexLabels);
+        this.vertexPredicate = vertexPredicate;
+        this.edgePredicate = edgePredicate;
+    }
+
+    /**
+     * Returns a view of all vertices and only the edges with one of <code>labels</code>.
+     */
+    public static FilteredJungGraph withEdgeLabels(Graph graph, String... labels) {
+        return new FilteredJungGraph(graph, Arrays.asList(labels), null);
+    }
+
+    /**
+     * Returns a view of only the vertices with one of <code>labels</code> and the edges between them.
+     */
+    public static FilteredJungGraph withVertexLabels(Graph graph, String... labels) {
+        return new FilteredJungGraph(graph, null, Arrays.asList(labels));
+    }
+
+    /**
+     * Compiles the elements of this view into a {@link CompiledJungGraph}, for algorithms that
+     * traverse the view many times.
+     */
+    public CompiledJungGraph compile() {
+        return new CompiledJungGraph(getGraph(), CsrSnapshot.compile(allVertices(), allEdges()));
+    }
+
+    /**
+     * Always fails: a filtered view cannot tell where added elements belong. Mutate the backing graph
+     * through an unfiltered {@link JungGraph} and create the view again.
+     */
+    @Override
+    public void setMutable(boolean mutable) {
+        if (mutable) {
+            String msg = "A filtered view is read-only";
+            throw new UnsupportedOperationException(msg);
+        }
+    }
+
+    // Deltas reported by a CacheInvalidationListener only apply to elements inside the view
+
+    @Override
+    public void onVertexAdded(Vertex vertex) {
+        if (includes(vertex)) {
+            super.onVertexAdded(vertex);
+        }
+    }
+
+    @Override
+    public void onVertexRemoved(Vertex vertex) {
+        if (includes(vertex)) {
+            super.onVertexRemoved(vertex);
+        }
+    }
+
+    @Override
+    public void onEdgeAdded(Edge edge) {
+        if (includes(edge)) {
+            super.onEdgeAdded(edge);
+        }
+    }
+
+    @Override
+    public void onEdgeRemoved(Edge edge) {
+        if (includes(edge)) {
+            super.onEdgeRemoved(edge);
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if <code>vertex</code> passes the vertex label filter and predicate.
+     */
+    protected boolean includes(Vertex vertex) {
+        return (vertexLabelSet == null || vertexLabelSet.contains(vertex.label()))
+                && (vertexPredicate == null || vertexPredicate.evaluate(vertex));
+    }
+
+    @Override
+    protected boolean includes(Edge edge) {
+        return (edgeLabelSet == null || edgeLabelSet.contains(edge.label()))
+                && (edgePredicate == null || edgePredicate.evaluate(edge))
+                && includes(edge.outVertex()) && includes(edge.inVertex());
+    }
+
+    @Override
+    protected Iterator<Vertex> allVertices() {
+        return IteratorUtils.filteredIterator(super.allVertices(), new Predicate<Vertex>() {
+            @Override
+            public boolean evaluate(Vertex vertex) {
+                return includes(vertex);
+            }
+        });
+    }
+
+    @Override
+    protected Iterator<Edge> allEdges() {
+        return IteratorUtils.filteredIterator(super.allEdges(), new Predicate<Edge>() {
+            @Override
+            public boolean evaluate(Edge edge) {
+                return includes(edge);
+            }
+        });
+    }
+
+    @Override
+    protected Iterator<Edge> edges(final Vertex vertex, final Direction direction) {
+        if (!includes(vertex)) {
+            return IteratorUtils.emptyIterator();
+        }
+        // The label filter has already been applied by the backing graph
+        return IteratorUtils.filteredIterator(vertex.edges(direction, edgeLabels), new Predicate<Edge>() {
+            @Override
+            public boolean evaluate(Edge edge) {
+                return (edgePredicate == null || edgePredicate.evaluate(edge))
+                        && includes(opposite(vertex, direction, edge));
+            }
+        });
+    }
+
+    @Override
+    protected Iterator<Vertex> vertices(final Vertex vertex, final Direction direction) {
+        return IteratorUtils.transformedIterator(edges(vertex, direction), new Transformer<Edge, Vertex>() {
+            @Override
+            public Vertex transform(Edge edge) {
+                return opposite(vertex, direction, edge);
+            }
+        });
+    }
+
+    @Override
+    public boolean containsVertex(Vertex vertex) {
+        return includes(vertex) && super.containsVertex(vertex);
+    }
+
+    @Override
+    public boolean containsEdge(Edge edge) {
+        return includes(edge) && super.containsEdge(edge);
+    }
+}
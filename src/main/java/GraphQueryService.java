@@ -0,0 +1,610 @@
+import edu.uci.ics.jung.graph.Graph;
+import org.apache.commons.collections15.Transformer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Asynchronous shortest path and k-hop neighbourhood queries over a JUNG graph, for serving many
+ * short concurrent requests from one adapter, e.g. a {@link JungGraph} in concurrent read mode.
+ * <p>
+ * Every query returns a <code>CompletableFuture</code> at once and runs on the service's executor: a
+ * bounded pool that rejects queries once its queue is full, or any executor passed in, such as a
+ * virtual-thread-per-task executor on Java 21. A query completes with a <code>TimeoutException</code>
+ * when its deadline passes, and can be cancelled through its future. The search loops check both every
+ * few steps, so abandoned searches stop early instead of running to the end.
+ * <p>
+ * Identical queries that are in flight at the same time are coalesced into one search. Each caller keeps
+ * its own future and deadline; the search stops once every caller has cancelled or timed out.
+ * <p>
+ * Shortest paths follow out-edges like JUNG's <code>DijkstraShortestPath</code> on a directed graph, with
+ * the edge lengths of {@link #setEdgeWeights(Transformer)} or length 1.
+ */
+public class GraphQueryService implements AutoCloseable {
+
+    // Deadlines and cancellation are checked once per this many settled vertices
+    private static final int CHECK_INTERVAL = 64;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final Graph<Vertex, Edge> graph;
+    private final Executor executor;
+    private final ThreadPoolExecutor ownedExecutor;
+    private final ScheduledThreadPoolExecutor timer;
+    private final Map<Key, Computation<?>> inFlight = new ConcurrentHashMap<>();
+
+    private volatile Transformer<Edge, ? extends Number> edgeWeights;
+    private volatile long defaultTimeoutNanos;
+    private volatile boolean closed;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong cancelled = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Runs queries on a pool of <code>threads</code> daemon threads that queues up to
+     * <code>queueCapacity</code> searches and rejects further ones; {@link #close()} shuts it down.
+     */
+    public GraphQueryService(Graph<Vertex, Edge> graph, int threads, int queueCapacity) {
+        this(graph, new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), daemonThreads("graph-query")), true);
+    }
+
+    /**
+     * Runs queries on <code>executor</code>, which stays owned by the caller.
+     */
+    public GraphQueryService(Graph<Vertex, Edge> graph, Executor executor) {
+        this(graph, executor, false);
+    }
+
+    private GraphQueryService(Graph<Vertex, Edge> graph, Executor executor, boolean owned) {
+        this.graph = graph;
+        this.executor = executor;
+        this.ownedExecutor = owned ? (ThreadPoolExecutor) executor : null;
+        this.timer = new ScheduledThreadPoolExecutor(1, daemonThreads("graph-query-timer"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Sets non-negative edge lengths for shortest paths, e.g. {@link EdgeWeights}; <code>null</code>,
+     * the default, gives every edge length 1. Queries that are already in flight keep their lengths.
+     */
+    public void setEdgeWeights(Transformer<Edge, ? extends Number> edgeWeights) {
+        this.edgeWeights = edgeWeights;
+    }
+
+    public Transformer<Edge, ? extends Number> getEdgeWeights() {
+        return edgeWeights;
+    }
+
+    /**
+     * Sets the deadline of queries submitted without one, relative to their submission; 0, the
+     * default, means no deadline.
+     */
+    public void setDefaultTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            String msg = "Timeout must not be negative: " + timeout;
+            throw new IllegalArgumentException(msg);
+        }
+        this.defaultTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    public long getDefaultTimeout(TimeUnit unit) {
+        return unit.convert(defaultTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Finds a shortest path from <code>source</code> to <code>target</code> within the default timeout.
+     *
+     * @return a future of the edges on the path, in order; empty if there is no path or both are the same
+     */
+    public CompletableFuture<List<Edge>> shortestPath(Vertex source, Vertex target) {
+        return shortestPath(source, target, defaultTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Finds a shortest path from <code>source</code> to <code>target</code> within <code>timeout</code>,
+     * or without a deadline if it is 0.
+     */
+    public CompletableFuture<List<Edge>> shortestPath(final Vertex source, final Vertex target, long timeout,
+                                                      TimeUnit unit) {
+        final Transformer<Edge, ? extends Number> weights = edgeWeights;
+        Key key = new Key("path", source.id(), target.id(), weights);
+        return submit(key, unit.toNanos(timeout), new Search<List<Edge>>() {
+            @Override
+            public List<Edge> run(Computation<List<Edge>> checkpoint) {
+                return dijkstra(source, target, weights, checkpoint);
+            }
+        });
+    }
+
+    /**
+     * Finds the vertices within <code>hops</code> steps of <code>center</code> within the default timeout.
+     *
+     * @param direction OUT to follow edges, IN to follow them backwards, BOTH to ignore their direction
+     * @return a future of every vertex reached, with its number of hops from <code>center</code>, in
+     * breadth-first order starting with <code>center</code> itself
+     */
+    public CompletableFuture<Map<Vertex, Integer>> neighborhood(Vertex center, int hops, Direction direction) {
+        return neighborhood(center, hops, direction, defaultTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Finds the vertices within <code>hops</code> steps of <code>center</code> within <code>timeout</code>,
+     * or without a deadline if it is 0.
+     */
+    public CompletableFuture<Map<Vertex, Integer>> neighborhood(final Vertex center, final int hops,
+                                                                final Direction direction, long timeout,
+                                                                TimeUnit unit) {
+        if (hops < 0) {
+            String msg = "The number of hops must not be negative: " + hops;
+            throw new IllegalArgumentException(msg);
+        }
+        Key key = new Key("neighborhood", center.id(), direction, hops);
+        return submit(key, unit.toNanos(timeout), new Search<Map<Vertex, Integer>>() {
+            @Override
+            public Map<Vertex, Integer> run(Computation<Map<Vertex, Integer>> checkpoint) {
+                return breadthFirst(center, hops, direction, checkpoint);
+            }
+        });
+    }
+
+    public Stats getStats() {
+        return new Stats(submitted.get(), coalesced.get(), searches.get(), timedOut.get(), cancelled.get(),
+                rejected.get(), inFlight.size());
+    }
+
+    /**
+     * Completes every query still in flight with a <code>CancellationException</code>, which also stops
+     * their searches, then stops the timer and, if the service created its own pool, the pool. Queries
+     * submitted afterwards fail with a <code>RejectedExecutionException</code>.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Computation<?> computation : inFlight.values()) {
+            computation.result.completeExceptionally(new CancellationException("Query service closed"));
+        }
+        timer.shutdownNow();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(Key key, long timeoutNanos, Search<T> search) {
+        if (timeoutNanos < 0) {
+            String msg = "Timeout must not be negative: " + timeoutNanos;
+            throw new IllegalArgumentException(msg);
+        }
+        submitted.incrementAndGet();
+        final CompletableFuture<T> caller = new Caller<>();
+        if (closed) {
+            rejected.incrementAndGet();
+            caller.completeExceptionally(new RejectedExecutionException("Query service closed"));
+            return caller;
+        }
+        long deadline = timeoutNanos == 0 ? NO_DEADLINE : System.nanoTime() + timeoutNanos;
+        while (true) {
+            Computation<T> existing = (Computation<T>) inFlight.get(key);
+            if (existing != null) {
+                if (existing.join(caller, deadline)) {
+                    coalesced.incrementAndGet();
+                    break;
+                }
+                // Finished or abandoned since it was looked up
+                inFlight.remove(key, existing);
+                continue;
+            }
+            Computation<T> computation = new Computation<>(key, search);
+            computation.join(caller, deadline);
+            if (inFlight.putIfAbsent(key, computation) == null) {
+                start(computation);
+                break;
+            }
+        }
+
+        if (timeoutNanos > 0) {
+            schedule(caller, timeoutNanos);
+        }
+        return caller;
+    }
+
+    /**
+     * Completes <code>caller</code> with a <code>TimeoutException</code> once <code>timeoutNanos</code> have
+     * passed, unless it completes first.
+     */
+    private <T> void schedule(final CompletableFuture<T> caller, final long timeoutNanos) {
+        final ScheduledFuture<?> expiry;
+        try {
+            expiry = timer.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    caller.completeExceptionally(new TimeoutException("Query did not finish within "
+                            + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms"));
+                }
+            }, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed since the query was submitted
+            caller.completeExceptionally(new CancellationException("Query service closed"));
+            return;
+        }
+        caller.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T result, Throwable failure) {
+                expiry.cancel(false);
+            }
+        });
+    }
+
+    private <T> void start(final Computation<T> computation) {
+        computation.result.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T result, Throwable failure) {
+                inFlight.remove(computation.key, computation);
+            }
+        });
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    if (computation.result.isDone()) {
+                        return;
+                    }
+                    searches.incrementAndGet();
+                    try {
+                        computation.result.complete(computation.search.run(computation));
+                    } catch (Abandoned e) {
+                        // A no-op when the callers have all left; otherwise the latest deadline has passed
+                        computation.result.completeExceptionally(new TimeoutException("Query did not finish in time"));
+                    } catch (RuntimeException | Error e) {
+                        computation.result.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            computation.result.completeExceptionally(e);
+        }
+    }
+
+    private List<Edge> dijkstra(Vertex source, Vertex target, Transformer<Edge, ? extends Number> weights,
+                                Computation<?> checkpoint) {
+        Map<Vertex, Double> distances = new HashMap<>();
+        Map<Vertex, Edge> parentEdges = new HashMap<>();
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        distances.put(source, 0.0);
+        queue.add(new Candidate(source, 0));
+        int settled = 0;
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.poll();
+            Vertex u = candidate.vertex;
+            if (candidate.distance > distances.get(u)) {
+                // A shorter distance was found after this entry was queued
+                continue;
+            }
+            if (u.equals(target)) {
+                break;
+            }
+            if (++settled % CHECK_INTERVAL == 0) {
+                checkpoint.check();
+            }
+            Collection<Edge> outEdges = graph.getOutEdges(u);
+            if (outEdges == null) {
+                continue;
+            }
+            for (Edge edge : outEdges) {
+                double length = weights == null ? 1.0 : weights.transform(edge).doubleValue();
+                if (length < 0) {
+                    String msg = "Edge " + edge + " has negative length " + length;
+                    throw new IllegalArgumentException(msg);
+                }
+                Vertex v = graph.getOpposite(u, edge);
+                double distance = candidate.distance + length;
+                Double known = distances.get(v);
+                if (known == null || distance < known) {
+                    distances.put(v, distance);
+                    parentEdges.put(v, edge);
+                    queue.add(new Candidate(v, distance));
+                }
+            }
+        }
+
+        if (source.equals(target) || !parentEdges.containsKey(target)) {
+            return Collections.emptyList();
+        }
+        List<Edge> path = new ArrayList<>();
+        for (Vertex v = target; !v.equals(source); ) {
+            Edge edge = parentEdges.get(v);
+            path.add(edge);
+            v = graph.getOpposite(v, edge);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private Map<Vertex, Integer> breadthFirst(Vertex center, int hops, Direction direction,
+                                              Computation<?> checkpoint) {
+        Map<Vertex, Integer> reached = new LinkedHashMap<>();
+        ArrayDeque<Vertex> queue = new ArrayDeque<>();
+        reached.put(center, 0);
+        queue.add(center);
+        int visited = 0;
+        while (!queue.isEmpty()) {
+            Vertex u = queue.poll();
+            int depth = reached.get(u);
+            if (depth == hops) {
+                continue;
+            }
+            if (++visited % CHECK_INTERVAL == 0) {
+                checkpoint.check();
+            }
+            Collection<Vertex> neighbors = direction == Direction.OUT ? graph.getSuccessors(u)
+                    : direction == Direction.IN ? graph.getPredecessors(u) : graph.getNeighbors(u);
+            if (neighbors == null) {
+                continue;
+            }
+            for (Vertex v : neighbors) {
+                if (!reached.containsKey(v)) {
+                    reached.put(v, depth + 1);
+                    queue.add(v);
+                }
+            }
+        }
+        return reached;
+    }
+
+    private static ThreadFactory daemonThreads(final String name) {
+        final AtomicInteger count = new AtomicInteger();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    private interface Search<T> {
+        T run(Computation<T> checkpoint);
+    }
+
+    /**
+     * Thrown inside a search once nobody waits for its result any more.
+     */
+    private static final class Abandoned extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Abandoned() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Future handed to one caller. It counts its own timeout or cancellation before completing, since a
+     * dependent stage may still be running after a waiting <code>get()</code> has returned; only the first
+     * completion attempt is counted.
+     */
+    private final class Caller<T> extends CompletableFuture<T> {
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        @Override
+        public boolean complete(T value) {
+            return settled.compareAndSet(false, true) && super.complete(value);
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable failure) {
+            if (!settled.compareAndSet(false, true)) {
+                return false;
+            }
+            if (failure instanceof CancellationException) {
+                cancelled.incrementAndGet();
+            } else if (failure instanceof TimeoutException) {
+                timedOut.incrementAndGet();
+            }
+            return super.completeExceptionally(failure);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!settled.compareAndSet(false, true)) {
+                return isCancelled();
+            }
+            cancelled.incrementAndGet();
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * One search and the callers waiting for it. The search is abandoned when its result is completed
+     * from outside, i.e. after the last caller left, or when the latest caller deadline has passed.
+     */
+    private final class Computation<T> {
+        private final Key key;
+        private final Search<T> search;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int waiting;
+        private volatile long deadline = Long.MIN_VALUE;
+
+        Computation(Key key, Search<T> search) {
+            this.key = key;
+            this.search = search;
+        }
+
+        /**
+         * Forwards the result to <code>caller</code>, unless the search already finished or was abandoned.
+         */
+        boolean join(final CompletableFuture<T> caller, long callerDeadline) {
+            synchronized (this) {
+                if (result.isDone()) {
+                    return false;
+                }
+                waiting++;
+                deadline = Math.max(deadline, callerDeadline);
+            }
+            result.whenComplete(new BiConsumer<T, Throwable>() {
+                @Override
+                public void accept(T value, Throwable failure) {
+                    if (failure == null) {
+                        caller.complete(value);
+                    } else {
+                        caller.completeExceptionally(failure);
+                    }
+                }
+            });
+            caller.whenComplete(new BiConsumer<T, Throwable>() {
+                @Override
+                public void accept(T value, Throwable failure) {
+                    leave();
+                }
+            });
+            return true;
+        }
+
+        private void leave() {
+            synchronized (this) {
+                if (--waiting > 0 || result.isDone()) {
+                    return;
+                }
+            }
+            result.cancel(false);
+        }
+
+        void check() {
+            if (result.isDone() || deadline != NO_DEADLINE && System.nanoTime() - deadline > 0) {
+                throw new Abandoned();
+            }
+        }
+    }
+
+    private static final class Candidate implements Comparable<Candidate> {
+        private final Vertex vertex;
+        private final double distance;
+
+        Candidate(Vertex vertex, double distance) {
+            this.vertex = vertex;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+
+    /**
+     * Identifies a query for coalescing: its kind and arguments.
+     */
+    private static final class Key {
+        private final Object[] parts;
+
+        Key(Object... parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(parts, ((Key) o).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(parts);
+        }
+    }
+
+    /**
+     * Counters of the queries served so far.
+     */
+    public static final class Stats {
+        private final long submitted;
+        private final long coalesced;
+        private final long searches;
+        private final long timedOut;
+        private final long cancelled;
+        private final long rejected;
+        private final int inFlight;
+
+        Stats(long submitted, long coalesced, long searches, long timedOut, long cancelled, long rejected,
+              int inFlight) {
+            this.submitted = submitted;
+            this.coalesced = coalesced;
+            this.searches = searches;
+            this.timedOut = timedOut;
+            this.cancelled = cancelled;
+            this.rejected = rejected;
+            this.inFlight = inFlight;
+        }
+
+        public long getSubmitted() {
+            return submitted;
+        }
+
+        /**
+         * Returns the number of queries answered by a search started for an identical earlier query.
+         */
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        /**
+         * Returns the number of searches that started running.
+         */
+        public long getSearches() {
+            return searches;
+        }
+
+        public long getTimedOut() {
+            return timedOut;
+        }
+
+        public long getCancelled() {
+            return cancelled;
+        }
+
+        public long getRejected() {
+            return rejected;
+        }
+
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d submitted, %d coalesced, %d searches, %d timed out, %d cancelled, %d rejected, %d in flight",
+                    submitted, coalesced, searches, timedOut, cancelled, rejected, inFlight);
+        }
+    }
+}
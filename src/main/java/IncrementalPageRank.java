@@ -0,0 +1,408 @@
+import edu.uci.ics.jung.algorithms.scoring.VertexScorer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * PageRank with the semantics of JUNG's <code>PageRank(graph, alpha)</code> (see {@link ParallelPageRank})
+ * that is kept up to date under batches of added and removed edges instead of being recomputed.
+ * <p>
+ * JUNG redistributes the score of dangling vertices according to the uniform prior, so its scores are
+ * <code>x = s * z / N</code>, where <code>z</code> solves the local system
+ * <code>z = (1 - alpha) P'<sup>T</sup> z + 1</code> over the non-dangling out-edges only, and the scalar
+ * <code>s = alpha / (1 - (1 - alpha) D / N)</code> folds in the dangling sum <code>D</code> of <code>z</code>.
+ * The system is solved by pushing residuals: a vertex whose residual exceeds the tolerance adds it to its
+ * own <code>z</code> and passes <code>(1 - alpha)</code> of it on to its successors.
+ * <p>
+ * When the out-edges of a vertex change, only the residuals of its old and new successors change, so
+ * {@link #update(Collection, Collection)} starts from the previous <code>z</code> and pushes from there.
+ * Its cost is proportional to the change and to how far it spreads, not to the size of the graph.
+ * The adjacency is held in primitive arrays built from the graph once; the graph itself is not read again.
+ */
+public class IncrementalPageRank implements VertexScorer<Vertex, Double> {
+
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final double alpha;
+    private double tolerance = 1e-7;
+
+    private final Map<Object, Integer> vertexIndex = new HashMap<>();
+    private final Set<Object> edgeIds = new HashSet<>();
+    private Vertex[] vertices = new Vertex[16];
+    private int[][] outTargets = new int[16][];
+    private int[] outDegrees = new int[16];
+    private double[] z = new double[16];
+    private double[] residuals = new double[16];
+    private int vertexCount;
+    // Sum of z over vertices without out-edges
+    private double danglingSum;
+
+    // FIFO of vertices whose residual exceeds the tolerance
+    private int[] queue = new int[16];
+    private boolean[] queued = new boolean[16];
+    private int queueHead;
+    private int queueSize;
+
+    private Report lastReport;
+
+    /**
+     * Reads the vertices and edges of <code>graph</code> once. Call {@link #evaluate()} before reading scores.
+     */
+    public IncrementalPageRank(JungHyperGraph graph, double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            String msg = "alpha must be in (0, 1]: " + alpha;
+            throw new IllegalArgumentException(msg);
+        }
+        this.alpha = alpha;
+        for (Vertex vertex : graph.getVertices()) {
+            addVertex(vertex);
+        }
+        for (Edge edge : graph.getEdges()) {
+            if (edgeIds.add(edge.id())) {
+                appendTarget(addVertex(edge.outVertex()), addVertex(edge.inVertex()));
+            }
+        }
+    }
+
+    /**
+     * Sets the largest residual left at any vertex, in units of the unnormalised scores <code>z</code>
+     * (at least 1 each). Defaults to 1e-7.
+     */
+    public void setTolerance(double tolerance) {
+        if (tolerance <= 0) {
+            String msg = "Tolerance must be positive: " + tolerance;
+            throw new IllegalArgumentException(msg);
+        }
+        this.tolerance = tolerance;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Computes the scores from scratch.
+     */
+    public Report evaluate() {
+        long start = System.nanoTime();
+        Arrays.fill(z, 0, vertexCount, 0);
+        danglingSum = 0;
+        Report report = new Report();
+        for (int v = 0; v < vertexCount; v++) {
+            residuals[v] = 1;
+            enqueue(v);
+        }
+        propagate(report);
+        finish(report, start);
+        return report;
+    }
+
+    /**
+     * Applies a batch of edge changes and reconverges from the previous scores. Endpoints that are new
+     * to the ranking are added to it. Edges that are already known are not added again, and unknown
+     * edges are not removed.
+     *
+     * @param added   edges added to the graph since the last update
+     * @param removed edges removed from the graph since the last update
+     * @return the convergence report
+     */
+    public Report update(Collection<Edge> added, Collection<Edge> removed) {
+        if (lastReport == null) {
+            throw new IllegalStateException("evaluate() has not been called");
+        }
+        long start = System.nanoTime();
+        Report report = new Report();
+
+        // Register new vertices first, so that N is final before any residual is computed
+        for (Edge edge : added) {
+            if (!edgeIds.contains(edge.id())) {
+                report.verticesAdded += registerVertex(edge.outVertex()) + registerVertex(edge.inVertex());
+            }
+        }
+
+        Set<Integer> changedSources = new HashSet<>();
+        for (Edge edge : added) {
+            if (!edgeIds.contains(edge.id())) {
+                changedSources.add(vertexIndex.get(edge.outVertex().id()));
+            }
+        }
+        for (Edge edge : removed) {
+            if (edgeIds.contains(edge.id())) {
+                changedSources.add(vertexIndex.get(edge.outVertex().id()));
+            }
+        }
+
+        // Withdraw what the changed rows passed on, change them, then pass on along the new rows
+        for (int source : changedSources) {
+            spread(source, -1);
+        }
+        for (Edge edge : removed) {
+            if (edgeIds.remove(edge.id())) {
+                removeTarget(vertexIndex.get(edge.outVertex().id()), vertexIndex.get(edge.inVertex().id()));
+                report.edgesRemoved++;
+            }
+        }
+        for (Edge edge : added) {
+            if (edgeIds.add(edge.id())) {
+                appendTarget(vertexIndex.get(edge.outVertex().id()), vertexIndex.get(edge.inVertex().id()));
+                report.edgesAdded++;
+            }
+        }
+        for (int source : changedSources) {
+            spread(source, 1);
+        }
+
+        propagate(report);
+        finish(report, start);
+        return report;
+    }
+
+    /**
+     * Returns the report of the last {@link #evaluate()} or {@link #update(Collection, Collection)}.
+     */
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the current score of <code>vertex</code>.
+     *
+     * @throws IllegalArgumentException if <code>vertex</code> is not part of the ranking
+     */
+    @Override
+    public Double getVertexScore(Vertex vertex) {
+        Integer index = vertexIndex.get(vertex.id());
+        if (index == null) {
+            throw new IllegalArgumentException("Vertex " + vertex + " not an element of this graph");
+        }
+        return getScore(index);
+    }
+
+    /**
+     * Returns the current score of the vertex with index <code>index</code>, in order of first appearance.
+     */
+    public double getScore(int index) {
+        if (lastReport == null) {
+            throw new IllegalStateException("evaluate() has not been called");
+        }
+        return scale() * z[index];
+    }
+
+    public Vertex getVertex(int index) {
+        return vertices[index];
+    }
+
+    private void finish(Report report, long start) {
+        // Every residual is now within the tolerance, and the push error is at most |r|_1 / alpha
+        report.errorBound = vertexCount * tolerance / alpha * scale();
+        report.elapsedNanos = System.nanoTime() - start;
+        lastReport = report;
+    }
+
+    private double scale() {
+        return alpha / (1 - (1 - alpha) * danglingSum / vertexCount) / vertexCount;
+    }
+
+    /**
+     * Adds or withdraws the share of z that <code>source</code> passes to each of its successors.
+     */
+    private void spread(int source, int sign) {
+        int degree = outDegrees[source];
+        if (degree == 0) {
+            // A dangling vertex passes nothing on; its z counts towards the dangling sum instead
+            danglingSum += sign * z[source];
+            return;
+        }
+        double share = sign * (1 - alpha) * z[source] / degree;
+        int[] targets = outTargets[source];
+        for (int i = 0; i < degree; i++) {
+            int target = targets[i];
+            if (target != source) {
+                residuals[target] += share;
+                if (Math.abs(residuals[target]) > tolerance) {
+                    enqueue(target);
+                }
+            }
+        }
+    }
+
+    private void propagate(Report report) {
+        while (queueSize > 0) {
+            int u = queue[queueHead];
+            queueHead = (queueHead + 1) % queue.length;
+            queueSize--;
+            queued[u] = false;
+
+            double residual = residuals[u];
+            if (Math.abs(residual) <= tolerance) {
+                continue;
+            }
+            residuals[u] = 0;
+            z[u] += residual;
+            report.pushes++;
+            int degree = outDegrees[u];
+            if (degree == 0) {
+                danglingSum += residual;
+                continue;
+            }
+            double share = (1 - alpha) * residual / degree;
+            int[] targets = outTargets[u];
+            for (int i = 0; i < degree; i++) {
+                int target = targets[i];
+                if (target != u) {
+                    residuals[target] += share;
+                    if (Math.abs(residuals[target]) > tolerance) {
+                        enqueue(target);
+                    }
+                }
+            }
+            report.edgesScanned += degree;
+        }
+    }
+
+    private void enqueue(int vertex) {
+        if (queued[vertex]) {
+            return;
+        }
+        if (queueSize == queue.length) {
+            int[] grown = new int[queue.length * 2];
+            for (int i = 0; i < queueSize; i++) {
+                grown[i] = queue[(queueHead + i) % queue.length];
+            }
+            queue = grown;
+            queueHead = 0;
+        }
+        queue[(queueHead + queueSize) % queue.length] = vertex;
+        queueSize++;
+        queued[vertex] = true;
+    }
+
+    /**
+     * Adds <code>vertex</code> with residual 1 if it is new.
+     *
+     * @return 1 if the vertex was added, 0 if it was already known
+     */
+    private int registerVertex(Vertex vertex) {
+        if (vertexIndex.containsKey(vertex.id())) {
+            return 0;
+        }
+        int index = addVertex(vertex);
+        // z = 0 with residual 1 is the same state a fresh evaluate() starts from
+        residuals[index] = 1;
+        enqueue(index);
+        return 1;
+    }
+
+    /**
+     * Returns the index of <code>vertex</code>, assigning the next one if it is new.
+     */
+    private int addVertex(Vertex vertex) {
+        Integer index = vertexIndex.get(vertex.id());
+        if (index != null) {
+            return index;
+        }
+        if (vertexCount == vertices.length) {
+            int length = vertexCount * 2;
+            vertices = Arrays.copyOf(vertices, length);
+            outTargets = Arrays.copyOf(outTargets, length);
+            outDegrees = Arrays.copyOf(outDegrees, length);
+            z = Arrays.copyOf(z, length);
+            residuals = Arrays.copyOf(residuals, length);
+            queued = Arrays.copyOf(queued, length);
+        }
+        vertices[vertexCount] = vertex;
+        outTargets[vertexCount] = NO_TARGETS;
+        vertexIndex.put(vertex.id(), vertexCount);
+        return vertexCount++;
+    }
+
+    private void appendTarget(int source, int target) {
+        int[] targets = outTargets[source];
+        int degree = outDegrees[source];
+        if (degree == targets.length) {
+            targets = Arrays.copyOf(targets, Math.max(4, degree * 2));
+            outTargets[source] = targets;
+        }
+        targets[degree] = target;
+        outDegrees[source] = degree + 1;
+    }
+
+    private void removeTarget(int source, int target) {
+        int[] targets = outTargets[source];
+        int degree = outDegrees[source];
+        for (int i = 0; i < degree; i++) {
+            if (targets[i] == target) {
+                targets[i] = targets[degree - 1];
+                outDegrees[source] = degree - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Work done by one {@link #evaluate()} or {@link #update(Collection, Collection)}.
+     */
+    public static final class Report {
+        private int edgesAdded;
+        private int edgesRemoved;
+        private int verticesAdded;
+        private long pushes;
+        private long edgesScanned;
+        private double errorBound;
+        private long elapsedNanos;
+
+        public int getEdgesAdded() {
+            return edgesAdded;
+        }
+
+        public int getEdgesRemoved() {
+            return edgesRemoved;
+        }
+
+        public int getVerticesAdded() {
+            return verticesAdded;
+        }
+
+        /**
+         * Returns the number of residual pushes, i.e. vertex updates, needed to reconverge.
+         */
+        public long getPushes() {
+            return pushes;
+        }
+
+        /**
+         * Returns the number of out-edges the pushes passed residual along.
+         */
+        public long getEdgesScanned() {
+            return edgesScanned;
+        }
+
+        /**
+         * Returns a bound on the L1 distance between the scores and the exact fixed point.
+         */
+        public double getErrorBound() {
+            return errorBound;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("IncrementalPageRank.Report[+%d/-%d edges, +%d vertices, %d pushes, "
+                            + "%d edges scanned, error <= %.1e, %.3f ms]",
+                    edgesAdded, edgesRemoved, verticesAdded, pushes, edgesScanned, errorBound, elapsedNanos / 1e6);
+        }
+    }
+}
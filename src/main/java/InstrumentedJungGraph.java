@@ -0,0 +1,278 @@
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.GraphDecorator;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Collection;
+
+/**
+ * Decorator that records {@link AdapterMetrics} for the hot adapter methods of the graph it wraps,
+ * to find out which calls dominate a JUNG algorithm run:
+ * <pre>
+ * InstrumentedJungGraph instrumented = new InstrumentedJungGraph(new JungGraph(graph));
+ * new PageRank&lt;&gt;(instrumented, 0.15).evaluate();
+ * System.out.println(instrumented.getMetrics());
+ * </pre>
+ * Time is measured around the delegate call. When the delegate is a {@link JungHyperGraph}, the decorator
+ * attaches its metrics to it with {@link JungHyperGraph#setAdapterMetrics(AdapterMetrics)}, and the copying
+ * collection methods also report how much of that time went to Tinkerpop iteration and how much to copying
+ * into the returned collection. All other methods are passed through unrecorded.
+ * <p>
+ * Metrics are not serialized: a deserialized decorator records into new, enabled metrics.
+ */
+public class InstrumentedJungGraph extends GraphDecorator<Vertex, Edge> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AdapterMetrics metrics;
+
+    public InstrumentedJungGraph(Graph<Vertex, Edge> delegate) {
+        this(delegate, new AdapterMetrics());
+    }
+
+    /**
+     * @param metrics the metrics to record into, which may be shared by several decorators
+     */
+    public InstrumentedJungGraph(Graph<Vertex, Edge> delegate, AdapterMetrics metrics) {
+        super(delegate);
+        this.metrics = metrics;
+        if (delegate instanceof JungHyperGraph) {
+            ((JungHyperGraph) delegate).setAdapterMetrics(metrics);
+        }
+    }
+
+    /**
+     * Rebuilds the transient metrics after deserialization.
+     */
+    private Object readResolve() {
+        return new InstrumentedJungGraph(delegate);
+    }
+
+    public AdapterMetrics getMetrics() {
+        return metrics;
+    }
+
+    public Graph<Vertex, Edge> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Collection<Vertex> getVertices() {
+        if (!metrics.isEnabled()) {
+            return delegate.getVertices();
+        }
+        long start = metrics.start();
+        Collection<Vertex> result = delegate.getVertices();
+        metrics.record(AdapterMetrics.Method.GET_VERTICES, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Edge> getEdges() {
+        if (!metrics.isEnabled()) {
+            return delegate.getEdges();
+        }
+        long start = metrics.start();
+        Collection<Edge> result = delegate.getEdges();
+        metrics.record(AdapterMetrics.Method.GET_EDGES, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Edge> getOutEdges(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getOutEdges(vertex);
+        }
+        long start = metrics.start();
+        Collection<Edge> result = delegate.getOutEdges(vertex);
+        metrics.record(AdapterMetrics.Method.GET_OUT_EDGES, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Edge> getInEdges(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getInEdges(vertex);
+        }
+        long start = metrics.start();
+        Collection<Edge> result = delegate.getInEdges(vertex);
+        metrics.record(AdapterMetrics.Method.GET_IN_EDGES, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Edge> getIncidentEdges(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getIncidentEdges(vertex);
+        }
+        long start = metrics.start();
+        Collection<Edge> result = delegate.getIncidentEdges(vertex);
+        metrics.record(AdapterMetrics.Method.GET_INCIDENT_EDGES, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Vertex> getSuccessors(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getSuccessors(vertex);
+        }
+        long start = metrics.start();
+        Collection<Vertex> result = delegate.getSuccessors(vertex);
+        metrics.record(AdapterMetrics.Method.GET_SUCCESSORS, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Vertex> getPredecessors(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getPredecessors(vertex);
+        }
+        long start = metrics.start();
+        Collection<Vertex> result = delegate.getPredecessors(vertex);
+        metrics.record(AdapterMetrics.Method.GET_PREDECESSORS, start, result);
+        return result;
+    }
+
+    @Override
+    public Collection<Vertex> getNeighbors(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getNeighbors(vertex);
+        }
+        long start = metrics.start();
+        Collection<Vertex> result = delegate.getNeighbors(vertex);
+        metrics.record(AdapterMetrics.Method.GET_NEIGHBORS, start, result);
+        return result;
+    }
+
+    @Override
+    public Edge findEdge(Vertex v1, Vertex v2) {
+        if (!metrics.isEnabled()) {
+            return delegate.findEdge(v1, v2);
+        }
+        long start = System.nanoTime();
+        Edge result = delegate.findEdge(v1, v2);
+        metrics.record(AdapterMetrics.Method.FIND_EDGE, start);
+        return result;
+    }
+
+    @Override
+    public Collection<Edge> findEdgeSet(Vertex v1, Vertex v2) {
+        if (!metrics.isEnabled()) {
+            return delegate.findEdgeSet(v1, v2);
+        }
+        long start = metrics.start();
+        Collection<Edge> result = delegate.findEdgeSet(v1, v2);
+        metrics.record(AdapterMetrics.Method.FIND_EDGE_SET, start, result);
+        return result;
+    }
+
+    @Override
+    public boolean containsVertex(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.containsVertex(vertex);
+        }
+        long start = System.nanoTime();
+        boolean result = delegate.containsVertex(vertex);
+        metrics.record(AdapterMetrics.Method.CONTAINS_VERTEX, start);
+        return result;
+    }
+
+    @Override
+    public boolean containsEdge(Edge edge) {
+        if (!metrics.isEnabled()) {
+            return delegate.containsEdge(edge);
+        }
+        long start = System.nanoTime();
+        boolean result = delegate.containsEdge(edge);
+        metrics.record(AdapterMetrics.Method.CONTAINS_EDGE, start);
+        return result;
+    }
+
+    @Override
+    public int getVertexCount() {
+        if (!metrics.isEnabled()) {
+            return delegate.getVertexCount();
+        }
+        long start = System.nanoTime();
+        int result = delegate.getVertexCount();
+        metrics.record(AdapterMetrics.Method.GET_VERTEX_COUNT, start);
+        return result;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        if (!metrics.isEnabled()) {
+            return delegate.getEdgeCount();
+        }
+        long start = System.nanoTime();
+        int result = delegate.getEdgeCount();
+        metrics.record(AdapterMetrics.Method.GET_EDGE_COUNT, start);
+        return result;
+    }
+
+    @Override
+    public int getNeighborCount(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getNeighborCount(vertex);
+        }
+        long start = System.nanoTime();
+        int result = delegate.getNeighborCount(vertex);
+        metrics.record(AdapterMetrics.Method.GET_NEIGHBOR_COUNT, start);
+        return result;
+    }
+
+    @Override
+    public int getSuccessorCount(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getSuccessorCount(vertex);
+        }
+        long start = System.nanoTime();
+        int result = delegate.getSuccessorCount(vertex);
+        metrics.record(AdapterMetrics.Method.GET_SUCCESSOR_COUNT, start);
+        return result;
+    }
+
+    @Override
+    public int getPredecessorCount(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.getPredecessorCount(vertex);
+        }
+        long start = System.nanoTime();
+        int result = delegate.getPredecessorCount(vertex);
+        metrics.record(AdapterMetrics.Method.GET_PREDECESSOR_COUNT, start);
+        return result;
+    }
+
+    @Override
+    public int degree(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.degree(vertex);
+        }
+        long start = System.nanoTime();
+        int result = delegate.degree(vertex);
+        metrics.record(AdapterMetrics.Method.DEGREE, start);
+        return result;
+    }
+
+    @Override
+    public int inDegree(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.inDegree(vertex);
+        }
+        long start = System.nanoTime();
+        int result = delegate.inDegree(vertex);
+        metrics.record(AdapterMetrics.Method.IN_DEGREE, start);
+        return result;
+    }
+
+    @Override
+    public int outDegree(Vertex vertex) {
+        if (!metrics.isEnabled()) {
+            return delegate.outDegree(vertex);
+        }
+        long start = System.nanoTime();
+        int result = delegate.outDegree(vertex);
+        metrics.record(AdapterMetrics.Method.OUT_DEGREE, start);
+        return result;
+    }
+}
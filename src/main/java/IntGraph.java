@@ -0,0 +1,78 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+/**
+ * Directed graph addressed by dense int indices instead of Tinkerpop elements, for algorithms that
+ * should run without boxing ids or hashing elements on every step.
+ * <p>
+ * Vertices are numbered <code>0</code> to <code>vertexCount() - 1</code> and edges
+ * <code>0</code> to <code>edgeCount() - 1</code>. {@link #indexOf(Vertex)} and {@link #vertex(int)}
+ * map between the two worlds, so results can be translated back for a {@link JungHyperGraph}.
+ * Obtain one from {@link JungHyperGraph#toIntGraph()}.
+ */
+public interface IntGraph {
+
+    /**
+     * Receives vertex indices or edge ordinals.
+     */
+    interface IntConsumer {
+        void accept(int value);
+    }
+
+    int vertexCount();
+
+    int edgeCount();
+
+    /**
+     * Returns the index of <code>vertex</code>, or -1 if it is not part of this graph.
+     */
+    int indexOf(Vertex vertex);
+
+    /**
+     * Returns the ordinal of <code>edge</code>, or -1 if it is not part of this graph.
+     */
+    int indexOf(Edge edge);
+
+    Vertex vertex(int index);
+
+    Edge edge(int ordinal);
+
+    /**
+     * Returns the index of the vertex edge <code>edgeOrdinal</code> leaves.
+     */
+    int edgeSource(int edgeOrdinal);
+
+    /**
+     * Returns the index of the vertex edge <code>edgeOrdinal</code> points to.
+     */
+    int edgeTarget(int edgeOrdinal);
+
+    int outDegree(int vertex);
+
+    int inDegree(int vertex);
+
+    /**
+     * Returns the number of incident edges, counting a self-loop twice like {@link JungGraph#degree(Vertex)}.
+     */
+    int degree(int vertex);
+
+    /**
+     * Passes the target of every out-edge of <code>vertex</code> to <code>consumer</code>, once per edge.
+     */
+    void outNeighbors(int vertex, IntConsumer consumer);
+
+    /**
+     * Passes the source of every in-edge of <code>vertex</code> to <code>consumer</code>, once per edge.
+     */
+    void inNeighbors(int vertex, IntConsumer consumer);
+
+    /**
+     * Passes the ordinal of every out-edge of <code>vertex</code> to <code>consumer</code>.
+     */
+    void outEdges(int vertex, IntConsumer consumer);
+
+    /**
+     * Passes the ordinal of every in-edge of <code>vertex</code> to <code>consumer</code>.
+     */
+    void inEdges(int vertex, IntConsumer consumer);
+}
@@ -1,6 +1,8 @@
 import edu.uci.ics.jung.graph.Graph;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import edu.uci.ics.jung.graph.util.Pair;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
@@ -13,6 +15,10 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
         super(graph);
     }
 
+    public JungGraph(org.apache.tinkerpop.gremlin.structure.Graph graph, int edgeIndexCapacity) {
+        super(graph, edgeIndexCapacity);
+    }
+
     /**
      * Returns <code>true</code> if <code>v1</code> is a predecessor of <code>v2</code> in this graph.
      * Equivalent to <code>v1.getPredecessors().contains(v2)</code>.
@@ -23,7 +29,10 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
      */
     @Override
     public boolean isPredecessor(Vertex v1, Vertex v2) {
-        return getPredecessors(v1).contains(v2);
+        if (getEdgeIndex() != null) {
+            return findEdge(v2, v1) != null;
+        }
+        return IteratorUtils.contains(vertices(v1, Direction.IN), v2);
     }
 
     /**
@@ -36,7 +45,10 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
      */
     @Override
     public boolean isSuccessor(Vertex v1, Vertex v2) {
-        return getSuccessors(v1).contains(v2);
+        if (getEdgeIndex() != null) {
+            return findEdge(v1, v2) != null;
+        }
+        return IteratorUtils.contains(vertices(v1, Direction.OUT), v2);
     }
 
     /**
@@ -48,7 +60,8 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
      */
     @Override
     public int getPredecessorCount(Vertex vertex) {
-        return getPredecessors(vertex).size();
+        // Predecessors are listed once per incoming edge, so this is the in-degree
+        return inDegree(vertex);
     }
 
     /**
@@ -60,7 +73,8 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
      */
     @Override
     public int getSuccessorCount(Vertex vertex) {
-        return getSuccessors(vertex).size();
+        // Successors are listed once per outgoing edge, so this is the out-degree
+        return outDegree(vertex);
     }
 
     /**
@@ -110,8 +124,7 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
      */
     @Override
     public boolean addEdge(Edge edge, Vertex v1, Vertex v2) {
-        String msg = "Assume graph is immutable";
-        throw new UnsupportedOperationException(msg);
+        return addEdge(edge, v1, v2, getDefaultEdgeType());
     }
 
     /**
@@ -136,8 +149,7 @@ public class JungGraph extends JungHyperGraph implements Graph<Vertex, Edge> {
      */
     @Override
     public boolean addEdge(Edge edge, Vertex v1, Vertex v2, EdgeType edgeType) {
-        String msg = "Assume graph is immutable";
-        throw new UnsupportedOperationException(msg);
+        return addEdge(edge, new Pair<>(v1, v2), edgeType);
     }
 
     /**
@@ -4,11 +4,18 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.IteratorUtils;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -16,10 +23,406 @@ import java.util.Set;
  */
 public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
 
+    private static final int UNKNOWN = -1;
+
     private final Graph graph;
 
+    // Computed on first use; reset by invalidateCounts() when the graph changes
+    private volatile int vertexCount = UNKNOWN;
+    private volatile int edgeCount = UNKNOWN;
+
+    // Null when findEdge and the neighbour predicates should scan outgoing edges instead
+    private final EdgeIndex edgeIndex;
+
+    // Null until buildDegreeIndex() is called
+    private volatile DegreeIndex degreeIndex;
+
+    // When set, adjacency methods return LazyCollection views instead of copied lists
+    private volatile boolean lazyViews;
+
+    // When set, the JUNG mutators write through to the Tinkerpop graph instead of throwing
+    private volatile boolean mutable;
+
+    // When set, all adapter state has been built up front for readers on many threads
+    private volatile boolean concurrentReads;
+
+    // Null unless an InstrumentedJungGraph times the copying collection methods
+    private volatile AdapterMetrics adapterMetrics;
+
+    /**
+     * Wraps <code>graph</code> without an {@link EdgeIndex}: <code>findEdge</code> and the neighbour
+     * predicates scan the outgoing edges of the source vertex.
+     */
     public JungHyperGraph(Graph graph) {
+        this(graph, 0);
+    }
+
+    /**
+     * @param graph             the graph to wrap
+     * @param edgeIndexCapacity the maximum number of edges held by the {@link EdgeIndex} behind
+     *                          <code>findEdge</code>, or 0 to disable the index; see
+     *                          {@link EdgeIndex#DEFAULT_CAPACITY} for a starting point on large graphs
+     */
+    public JungHyperGraph(Graph graph, int edgeIndexCapacity) {
         this.graph = graph;
+        this.edgeIndex = edgeIndexCapacity > 0 ? new EdgeIndex(this, edgeIndexCapacity) : null;
+    }
+
+    /**
+     * Returns the index used by <code>findEdge</code>, or <code>null</code> if it is disabled.
+     */
+    public EdgeIndex getEdgeIndex() {
+        return edgeIndex;
+    }
+
+    /**
+     * Counts the IN and OUT degree of every vertex in one pass over the graph and serves
+     * <code>degree</code>, <code>inDegree</code> and <code>outDegree</code> from it from then on.
+     * Also primes the vertex and edge counts.
+     *
+     * @return the new index, which reports its build time and memory footprint
+     */
+    public DegreeIndex buildDegreeIndex() {
+        DegreeIndex index = DegreeIndex.build(allVertices(), allEdges());
+        degreeIndex = index;
+        setCounts(index.vertexCount(), index.edgeCount());
+        return index;
+    }
+
+    /**
+     * Returns the index built by {@link #buildDegreeIndex()}, or <code>null</code> if there is none.
+     */
+    public DegreeIndex getDegreeIndex() {
+        return degreeIndex;
+    }
+
+    /**
+     * Drops the degree index; degrees are counted from the graph again until it is rebuilt.
+     */
+    public void invalidateDegreeIndex() {
+        degreeIndex = null;
+    }
+
+    /**
+     * Returns an {@link IntGraph} of the vertices and edges seen through this adapter, for algorithms
+     * that work on int indices instead of Tinkerpop elements. The topology is copied into a
+     * {@link CsrSnapshot} on every call; later changes to the graph are not visible in it.
+     */
+    public IntGraph toIntGraph() {
+        return CsrSnapshot.compile(allVertices(), allEdges());
+    }
+
+    /**
+     * Switches lazy view mode on or off. In lazy view mode <code>getEdges</code>, <code>getVertices</code>,
+     * <code>getIncidentEdges</code>, <code>getInEdges</code>, <code>getOutEdges</code>,
+     * <code>getPredecessors</code> and <code>getSuccessors</code> return read-only {@link LazyCollection}
+     * views that re-read the graph on every iteration, with <code>size()</code> and <code>contains()</code>
+     * answered from the counts, degrees and edge endpoints. Otherwise they return copied lists.
+     */
+    public void setLazyViews(boolean lazyViews) {
+        this.lazyViews = lazyViews;
+    }
+
+    public boolean isLazyViews() {
+        return lazyViews;
+    }
+
+    /**
+     * Switches mutable mode on or off. In mutable mode <code>addVertex</code>, <code>addEdge</code>,
+     * <code>removeVertex</code> and <code>removeEdge</code> are forwarded to the Tinkerpop graph and applied
+     * to the cached counts, the degree index and the edge index as deltas, so nothing has to be rebuilt.
+     * Otherwise they throw <code>UnsupportedOperationException</code>.
+     * <p>
+     * Added elements keep the id, label and properties of the element passed in, which requires a graph
+     * that supports user-supplied ids. Mutations must come from a single thread.
+     *
+     * @throws IllegalStateException if switched on in concurrent read mode
+     */
+    public void setMutable(boolean mutable) {
+        if (mutable && concurrentReads) {
+            String msg = "Mutable mode cannot be combined with concurrent read mode";
+            throw new IllegalStateException(msg);
+        }
+        this.mutable = mutable;
+    }
+
+    public boolean isMutable() {
+        return mutable;
+    }
+
+    /**
+     * Switches concurrent read mode on or off. Switching it on builds the adapter state in the calling
+     * thread: the vertex and edge counts, the degree index and the rows of the edge index, up to its
+     * capacity. The state is published through volatile fields, so one adapter can then be handed to
+     * any number of threads running JUNG algorithms at once, as long as the graph does not change.
+     * What is still filled on demand, i.e. edge index rows beyond the capacity and the entries of an
+     * {@link AdjacencyCache}, goes to striped structures whose misses read the graph outside of any lock.
+     * <p>
+     * Switching the mode on again rebuilds the state, e.g. after the graph was changed between two
+     * batches of readers.
+     *
+     * @throws IllegalStateException if switched on in mutable mode
+     */
+    public void setConcurrentReads(boolean concurrentReads) {
+        if (concurrentReads) {
+            if (mutable) {
+                String msg = "Concurrent read mode cannot be combined with mutable mode";
+                throw new IllegalStateException(msg);
+            }
+            prepareConcurrentReads();
+        }
+        this.concurrentReads = concurrentReads;
+    }
+
+    public boolean isConcurrentReads() {
+        return concurrentReads;
+    }
+
+    /**
+     * Builds the state that readers would otherwise initialise lazily; called when concurrent read mode
+     * is switched on. Subclasses with state of their own build it here as well.
+     */
+    protected void prepareConcurrentReads() {
+        buildDegreeIndex();
+        if (edgeIndex != null) {
+            edgeIndex.warm(allVertices());
+        }
+    }
+
+    /**
+     * Reports the time the copying collection methods spend in Tinkerpop iterators and the time they spend
+     * adding to the returned collection to <code>metrics</code>, while it is enabled; <code>null</code>, the
+     * default, reports nothing. Set by {@link InstrumentedJungGraph}.
+     */
+    public void setAdapterMetrics(AdapterMetrics adapterMetrics) {
+        this.adapterMetrics = adapterMetrics;
+    }
+
+    public AdapterMetrics getAdapterMetrics() {
+        return adapterMetrics;
+    }
+
+    /**
+     * Adds the remaining elements of <code>iterator</code> to <code>target</code>. While adapter metrics are
+     * recording, the two phases are timed separately, at the cost of two clock reads per element.
+     */
+    protected <T, C extends Collection<T>> C copy(Iterator<T> iterator, C target) {
+        AdapterMetrics metrics = adapterMetrics;
+        if (metrics == null || !metrics.isEnabled()) {
+            CollectionUtils.addAll(target, iterator);
+            return target;
+        }
+        long iterationNanos = 0;
+        long copyNanos = 0;
+        long mark = System.nanoTime();
+        while (iterator.hasNext()) {
+            T element = iterator.next();
+            long iterated = System.nanoTime();
+            iterationNanos += iterated - mark;
+            target.add(element);
+            mark = System.nanoTime();
+            copyNanos += mark - iterated;
+        }
+        // The final hasNext() is iteration as well
+        iterationNanos += System.nanoTime() - mark;
+        metrics.recordPhases(iterationNanos, copyNanos);
+        return target;
+    }
+
+    /**
+     * Returns the wrapped Tinkerpop graph.
+     */
+    protected Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns every vertex of this graph. All vertex-wide methods read vertices through this hook,
+     * so subclasses that expose a subgraph only need to override the hooks.
+     */
+    protected Iterator<Vertex> allVertices() {
+        return graph.vertices();
+    }
+
+    /**
+     * Returns every edge of this graph; see {@link #allVertices()}.
+     */
+    protected Iterator<Edge> allEdges() {
+        return graph.edges();
+    }
+
+    /**
+     * Returns the edges of <code>vertex</code> in <code>direction</code>. All adjacency and degree
+     * methods read edges through this hook, except where the edge or degree index answers them.
+     */
+    protected Iterator<Edge> edges(Vertex vertex, Direction direction) {
+        return vertex.edges(direction);
+    }
+
+    /**
+     * Returns the vertices adjacent to <code>vertex</code> in <code>direction</code>, one per edge.
+     */
+    protected Iterator<Vertex> vertices(Vertex vertex, Direction direction) {
+        return vertex.vertices(direction);
+    }
+
+    /**
+     * Returns the vertex at the other end of <code>edge</code>, reached from <code>vertex</code> in
+     * <code>direction</code>, for subclasses that derive {@link #vertices(Vertex, Direction)} from
+     * {@link #edges(Vertex, Direction)}.
+     */
+    protected static Vertex opposite(Vertex vertex, Direction direction, Edge edge) {
+        switch (direction) {
+            case OUT:
+                return edge.inVertex();
+            case IN:
+                return edge.outVertex();
+            default:
+                Vertex out = edge.outVertex();
+                return out.equals(vertex) ? edge.inVertex() : out;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if <code>edge</code>, known to be in the Tinkerpop graph, is part of this graph.
+     * Used by the membership predicates that do not iterate the graph.
+     */
+    protected boolean includes(Edge edge) {
+        return true;
+    }
+
+    /**
+     * Supplies vertex and edge counts known up front, e.g. from backend statistics,
+     * so that they never have to be computed by iterating the graph.
+     *
+     * @param vertexCount the number of vertices in the graph
+     * @param edgeCount   the number of edges in the graph
+     */
+    public void setCounts(int vertexCount, int edgeCount) {
+        if (vertexCount < 0 || edgeCount < 0) {
+            String msg = "Counts must be non-negative: " + vertexCount + ", " + edgeCount;
+            throw new IllegalArgumentException(msg);
+        }
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+    }
+
+    /**
+     * Discards the cached vertex and edge counts; they are recomputed on the next request.
+     * Called by {@link CacheInvalidationListener} when the wrapped graph is mutated.
+     */
+    public void invalidateCounts() {
+        vertexCount = UNKNOWN;
+        edgeCount = UNKNOWN;
+    }
+
+    /**
+     * Applies the addition of <code>vertex</code> to the cached counts and degree index.
+     * Called by {@link #addVertex(Vertex)} in mutable mode and by {@link CacheInvalidationListener}.
+     */
+    public void onVertexAdded(Vertex vertex) {
+        int count = vertexCount;
+        if (count != UNKNOWN) {
+            vertexCount = count + 1;
+        }
+        DegreeIndex index = degreeIndex;
+        if (index != null) {
+            index.vertexAdded(vertex);
+        }
+    }
+
+    /**
+     * Applies the removal of <code>vertex</code> and of all its incident edges to the cached counts, degree
+     * index and edge index. Must be called while the vertex is still in the graph; if it is already gone,
+     * its edges are unknown and all caches are dropped instead.
+     */
+    public void onVertexRemoved(Vertex vertex) {
+        Iterator<Vertex> live = graph.vertices(vertex.id());
+        if (!live.hasNext()) {
+            invalidateCounts();
+            invalidateDegreeIndex();
+            if (edgeIndex != null) {
+                edgeIndex.clear();
+            }
+            return;
+        }
+        // A self-loop is returned once in each direction but removed once
+        Set<Edge> incident = new HashSet<>(IteratorUtils.toList(live.next().edges(Direction.BOTH)));
+        for (Edge edge : incident) {
+            onEdgeRemoved(edge);
+        }
+        int count = vertexCount;
+        if (count != UNKNOWN) {
+            vertexCount = count - 1;
+        }
+        DegreeIndex index = degreeIndex;
+        if (index != null) {
+            index.vertexRemoved(vertex);
+        }
+        if (edgeIndex != null) {
+            edgeIndex.invalidate(vertex.id());
+        }
+    }
+
+    /**
+     * Applies the addition of <code>edge</code> to the cached counts, degree index and edge index.
+     */
+    public void onEdgeAdded(Edge edge) {
+        int count = edgeCount;
+        if (count != UNKNOWN) {
+            edgeCount = count + 1;
+        }
+        DegreeIndex index = degreeIndex;
+        if (index != null && !index.edgeAdded(edge)) {
+            invalidateDegreeIndex();
+        }
+        if (edgeIndex != null) {
+            edgeIndex.edgeAdded(edge);
+        }
+    }
+
+    /**
+     * Applies the removal of <code>edge</code> to the cached counts, degree index and edge index.
+     */
+    public void onEdgeRemoved(Edge edge) {
+        int count = edgeCount;
+        if (count != UNKNOWN) {
+            edgeCount = count - 1;
+        }
+        DegreeIndex index = degreeIndex;
+        if (index != null && !index.edgeRemoved(edge)) {
+            invalidateDegreeIndex();
+        }
+        if (edgeIndex != null) {
+            edgeIndex.edgeRemoved(edge);
+        }
+    }
+
+    private void checkMutable() {
+        if (!mutable) {
+            String msg = "Graph is read-only; call setMutable(true) to forward mutations to Tinkerpop";
+            throw new UnsupportedOperationException(msg);
+        }
+    }
+
+    /**
+     * Returns the id, optionally the label, and the properties of <code>element</code> as Tinkerpop key/values.
+     */
+    private static Object[] keyValues(Element element, boolean withLabel) {
+        List<Object> keyValues = new ArrayList<>();
+        keyValues.add(T.id);
+        keyValues.add(element.id());
+        if (withLabel) {
+            keyValues.add(T.label);
+            keyValues.add(element.label());
+        }
+        Iterator<? extends Property<Object>> properties = element.properties();
+        while (properties.hasNext()) {
+            Property<Object> property = properties.next();
+            keyValues.add(property.key());
+            keyValues.add(property.value());
+        }
+        return keyValues.toArray();
     }
 
     /**
@@ -31,7 +434,25 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Collection<Edge> getEdges() {
-        return IteratorUtils.toList(graph.edges());
+        if (lazyViews) {
+            return new LazyCollection<Edge>() {
+                @Override
+                public Iterator<Edge> iterator() {
+                    return allEdges();
+                }
+
+                @Override
+                public int size() {
+                    return getEdgeCount();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof Edge && containsEdge((Edge) o);
+                }
+            };
+        }
+        return copy(allEdges(), new ArrayList<Edge>());
     }
 
     /**
@@ -43,7 +464,25 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Collection<Vertex> getVertices() {
-        return IteratorUtils.toList(graph.vertices());
+        if (lazyViews) {
+            return new LazyCollection<Vertex>() {
+                @Override
+                public Iterator<Vertex> iterator() {
+                    return allVertices();
+                }
+
+                @Override
+                public int size() {
+                    return getVertexCount();
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof Vertex && containsVertex((Vertex) o);
+                }
+            };
+        }
+        return copy(allVertices(), new ArrayList<Vertex>());
     }
 
     /**
@@ -55,7 +494,8 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean containsVertex(Vertex vertex) {
-        return graph.traversal().V().hasId(vertex.id()).hasNext();
+        // A direct id lookup; building a traversal per call costs far more than the lookup itself
+        return graph.vertices(vertex.id()).hasNext();
     }
 
     /**
@@ -67,27 +507,39 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean containsEdge(Edge edge) {
-        return graph.traversal().E().hasId(edge.id()).hasNext();
+        return graph.edges(edge.id()).hasNext();
     }
 
     /**
      * Returns the number of edges in this graph.
+     * The count is computed once and cached until {@link #invalidateCounts()} is called.
      *
      * @return the number of edges in this graph
      */
     @Override
     public int getEdgeCount() {
-        return CollectionUtils.size(graph.edges());
+        int count = edgeCount;
+        if (count == UNKNOWN) {
+            count = CollectionUtils.size(allEdges());
+            edgeCount = count;
+        }
+        return count;
     }
 
     /**
      * Returns the number of vertices in this graph.
+     * The count is computed once and cached until {@link #invalidateCounts()} is called.
      *
      * @return the number of vertices in this graph
      */
     @Override
     public int getVertexCount() {
-        return CollectionUtils.size(graph.vertices());
+        int count = vertexCount;
+        if (count == UNKNOWN) {
+            count = CollectionUtils.size(allVertices());
+            vertexCount = count;
+        }
+        return count;
     }
 
     /**
@@ -102,7 +554,7 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Collection<Vertex> getNeighbors(Vertex vertex) {
-        return new HashSet<Vertex>(IteratorUtils.toList(vertex.vertices(Direction.BOTH)));
+        return copy(vertices(vertex, Direction.BOTH), new HashSet<Vertex>());
     }
 
     /**
@@ -113,8 +565,26 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      * or <code>null</code> if <code>vertex</code> is not present
      */
     @Override
-    public Collection<Edge> getIncidentEdges(Vertex vertex) {
-        return IteratorUtils.toList(vertex.edges(Direction.BOTH));
+    public Collection<Edge> getIncidentEdges(final Vertex vertex) {
+        if (lazyViews) {
+            return new LazyCollection<Edge>() {
+                @Override
+                public Iterator<Edge> iterator() {
+                    return edges(vertex, Direction.BOTH);
+                }
+
+                @Override
+                public int size() {
+                    return degree(vertex);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof Edge && isIncident(vertex, (Edge) o);
+                }
+            };
+        }
+        return copy(edges(vertex, Direction.BOTH), new ArrayList<Edge>());
     }
 
     /**
@@ -130,7 +600,7 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Collection<Vertex> getIncidentVertices(Edge edge) {
-        return IteratorUtils.toList(edge.vertices(Direction.BOTH));
+        return copy(edge.vertices(Direction.BOTH), new ArrayList<Vertex>());
     }
 
     /**
@@ -159,7 +629,15 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Edge findEdge(Vertex v1, Vertex v2) {
-        for (Edge edge : IteratorUtils.asIterable(v1.edges(Direction.OUT))) {
+        if (edgeIndex != null) {
+            for (Edge edge : edgeIndex.edges(v1, v2)) {
+                if (includes(edge)) {
+                    return edge;
+                }
+            }
+            return null;
+        }
+        for (Edge edge : IteratorUtils.asIterable(edges(v1, Direction.OUT))) {
             if (edge.inVertex().equals(v2)) {
                 return edge;
             }
@@ -191,8 +669,17 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Collection<Edge> findEdgeSet(Vertex v1, Vertex v2) {
+        if (edgeIndex != null) {
+            Set<Edge> edgeSet = new HashSet<>();
+            for (Edge edge : edgeIndex.edges(v1, v2)) {
+                if (includes(edge)) {
+                    edgeSet.add(edge);
+                }
+            }
+            return edgeSet;
+        }
         Set<Edge> edgeSet = new HashSet<>();
-        for (Edge edge : IteratorUtils.asIterable(v1.edges(Direction.OUT))) {
+        for (Edge edge : IteratorUtils.asIterable(edges(v1, Direction.OUT))) {
             if (edge.inVertex().equals(v2)) {
                 edgeSet.add(edge);
             }
@@ -210,8 +697,20 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean addVertex(Vertex vertex) {
-        String msg = "Because graph db we're using: Titan, doesn't support adding custom id";
-        throw new UnsupportedOperationException(msg);
+        checkMutable();
+        if (vertex == null) {
+            throw new IllegalArgumentException("vertex may not be null");
+        }
+        if (containsVertex(vertex)) {
+            return false;
+        }
+        if (!graph.features().vertex().supportsUserSuppliedIds()) {
+            String msg = "Graph does not support user-supplied vertex ids, so " + vertex + " cannot be added";
+            throw new UnsupportedOperationException(msg);
+        }
+        Vertex added = graph.addVertex(keyValues(vertex, true));
+        onVertexAdded(added);
+        return true;
     }
 
     /**
@@ -234,7 +733,7 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean addEdge(Edge edge, Collection<? extends Vertex> vertices) {
-        return false;
+        return addEdge(edge, vertices, getDefaultEdgeType());
     }
 
     /**
@@ -259,8 +758,43 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean addEdge(Edge edge, Collection<? extends Vertex> vertices, EdgeType edge_type) {
-        String msg = "Because graph db we're using: Titan, doesn't support adding custom id";
-        throw new UnsupportedOperationException(msg);
+        checkMutable();
+        if (edge == null || vertices == null) {
+            throw new IllegalArgumentException("edge and vertices may not be null");
+        }
+        if (edge_type != getDefaultEdgeType()) {
+            String msg = "Edge type " + edge_type + " is not supported; Tinkerpop edges are " + getDefaultEdgeType();
+            throw new IllegalArgumentException(msg);
+        }
+        if (vertices.size() != 2) {
+            String msg = "An edge must connect exactly 2 vertices: " + vertices;
+            throw new IllegalArgumentException(msg);
+        }
+        Iterator<? extends Vertex> endpoints = vertices.iterator();
+        Vertex source = endpoints.next();
+        Vertex dest = endpoints.next();
+
+        Iterator<Edge> existing = graph.edges(edge.id());
+        if (existing.hasNext()) {
+            Edge current = existing.next();
+            if (current.outVertex().equals(source) && current.inVertex().equals(dest)) {
+                return false;
+            }
+            String msg = "Edge " + edge + " already connects " + current.outVertex() + " to " + current.inVertex();
+            throw new IllegalArgumentException(msg);
+        }
+        if (!graph.features().edge().supportsUserSuppliedIds()) {
+            String msg = "Graph does not support user-supplied edge ids, so " + edge + " cannot be added";
+            throw new UnsupportedOperationException(msg);
+        }
+        // Like JUNG's own graphs, add missing endpoints instead of failing
+        addVertex(source);
+        addVertex(dest);
+        Vertex liveSource = graph.vertices(source.id()).next();
+        Vertex liveDest = source.equals(dest) ? liveSource : graph.vertices(dest.id()).next();
+        Edge added = liveSource.addEdge(edge.label(), liveDest, keyValues(edge, false));
+        onEdgeAdded(added);
+        return true;
     }
 
     /**
@@ -281,8 +815,18 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean removeVertex(Vertex vertex) {
-        String msg = "Assume graph is immutable";
-        throw new UnsupportedOperationException(msg);
+        checkMutable();
+        if (vertex == null) {
+            return false;
+        }
+        Iterator<Vertex> live = graph.vertices(vertex.id());
+        if (!live.hasNext()) {
+            return false;
+        }
+        Vertex current = live.next();
+        onVertexRemoved(current);
+        current.remove();
+        return true;
     }
 
     /**
@@ -294,8 +838,18 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean removeEdge(Edge edge) {
-        String msg = "Assume graph is immutable";
-        throw new UnsupportedOperationException(msg);
+        checkMutable();
+        if (edge == null) {
+            return false;
+        }
+        Iterator<Edge> live = graph.edges(edge.id());
+        if (!live.hasNext()) {
+            return false;
+        }
+        Edge current = live.next();
+        onEdgeRemoved(current);
+        current.remove();
+        return true;
     }
 
     /**
@@ -308,7 +862,10 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean isNeighbor(Vertex v1, Vertex v2) {
-        return getNeighbors(v1).contains(v2);
+        if (edgeIndex != null) {
+            return findEdge(v1, v2) != null || findEdge(v2, v1) != null;
+        }
+        return IteratorUtils.contains(vertices(v1, Direction.BOTH), v2);
     }
 
     /**
@@ -324,7 +881,7 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public boolean isIncident(Vertex vertex, Edge edge) {
-        return getIncidentEdges(vertex).contains(edge);
+        return (edge.outVertex().equals(vertex) || edge.inVertex().equals(vertex)) && includes(edge);
     }
 
     /**
@@ -350,7 +907,12 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public int degree(Vertex vertex) {
-        return getIncidentEdges(vertex).size();
+        DegreeIndex index = degreeIndex;
+        int v = index == null ? -1 : index.indexOf(vertex);
+        if (v >= 0) {
+            return index.degree(v);
+        }
+        return IteratorUtils.size(edges(vertex, Direction.BOTH));
     }
 
     /**
@@ -414,7 +976,8 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public Collection<Edge> getEdges(EdgeType edge_type) {
-        return IteratorUtils.toList(graph.edges());
+        // Every Tinkerpop edge is directed
+        return edge_type == getDefaultEdgeType() ? getEdges() : Collections.<Edge>emptyList();
     }
 
     /**
@@ -425,7 +988,7 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public int getEdgeCount(EdgeType edge_type) {
-        return getEdges(edge_type).size();
+        return edge_type == getDefaultEdgeType() ? getEdgeCount() : 0;
     }
 
     /**
@@ -437,8 +1000,26 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      * to <code>vertex</code> in this graph
      */
     @Override
-    public Collection<Edge> getInEdges(Vertex vertex) {
-        return IteratorUtils.toList(vertex.edges(Direction.IN));
+    public Collection<Edge> getInEdges(final Vertex vertex) {
+        if (lazyViews) {
+            return new LazyCollection<Edge>() {
+                @Override
+                public Iterator<Edge> iterator() {
+                    return edges(vertex, Direction.IN);
+                }
+
+                @Override
+                public int size() {
+                    return inDegree(vertex);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof Edge && ((Edge) o).inVertex().equals(vertex) && includes((Edge) o);
+                }
+            };
+        }
+        return copy(edges(vertex, Direction.IN), new ArrayList<Edge>());
     }
 
     /**
@@ -450,8 +1031,26 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      * to <code>vertex</code> in this graph
      */
     @Override
-    public Collection<Edge> getOutEdges(Vertex vertex) {
-        return IteratorUtils.toList(vertex.edges(Direction.OUT));
+    public Collection<Edge> getOutEdges(final Vertex vertex) {
+        if (lazyViews) {
+            return new LazyCollection<Edge>() {
+                @Override
+                public Iterator<Edge> iterator() {
+                    return edges(vertex, Direction.OUT);
+                }
+
+                @Override
+                public int size() {
+                    return outDegree(vertex);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return o instanceof Edge && ((Edge) o).outVertex().equals(vertex) && includes((Edge) o);
+                }
+            };
+        }
+        return copy(edges(vertex, Direction.OUT), new ArrayList<Edge>());
     }
 
     /**
@@ -463,7 +1062,12 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public int inDegree(Vertex vertex) {
-        return getInEdges(vertex).size();
+        DegreeIndex index = degreeIndex;
+        int v = index == null ? -1 : index.indexOf(vertex);
+        if (v >= 0) {
+            return index.inDegree(v);
+        }
+        return IteratorUtils.size(edges(vertex, Direction.IN));
     }
 
     /**
@@ -475,7 +1079,12 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      */
     @Override
     public int outDegree(Vertex vertex) {
-        return getOutEdges(vertex).size();
+        DegreeIndex index = degreeIndex;
+        int v = index == null ? -1 : index.indexOf(vertex);
+        if (v >= 0) {
+            return index.outDegree(v);
+        }
+        return IteratorUtils.size(edges(vertex, Direction.OUT));
     }
 
     /**
@@ -523,8 +1132,29 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      * <code>vertex</code> in this graph
      */
     @Override
-    public Collection<Vertex> getPredecessors(Vertex vertex) {
-        return IteratorUtils.toList(vertex.vertices(Direction.IN));
+    public Collection<Vertex> getPredecessors(final Vertex vertex) {
+        if (lazyViews) {
+            return new LazyCollection<Vertex>() {
+                @Override
+                public Iterator<Vertex> iterator() {
+                    return vertices(vertex, Direction.IN);
+                }
+
+                @Override
+                public int size() {
+                    return inDegree(vertex);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (edgeIndex != null && o instanceof Vertex) {
+                        return findEdge((Vertex) o, vertex) != null;
+                    }
+                    return super.contains(o);
+                }
+            };
+        }
+        return copy(vertices(vertex, Direction.IN), new ArrayList<Vertex>());
     }
 
     /**
@@ -539,7 +1169,28 @@ public class JungHyperGraph implements Hypergraph<Vertex, Edge> {
      * <code>vertex</code> in this graph
      */
     @Override
-    public Collection<Vertex> getSuccessors(Vertex vertex) {
-        return IteratorUtils.toList(vertex.vertices(Direction.OUT));
+    public Collection<Vertex> getSuccessors(final Vertex vertex) {
+        if (lazyViews) {
+            return new LazyCollection<Vertex>() {
+                @Override
+                public Iterator<Vertex> iterator() {
+                    return vertices(vertex, Direction.OUT);
+                }
+
+                @Override
+                public int size() {
+                    return outDegree(vertex);
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    if (edgeIndex != null && o instanceof Vertex) {
+                        return findEdge(vertex, (Vertex) o) != null;
+                    }
+                    return super.contains(o);
+                }
+            };
+        }
+        return copy(vertices(vertex, Direction.OUT), new ArrayList<Vertex>());
     }
 }
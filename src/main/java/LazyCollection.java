@@ -0,0 +1,24 @@
+import org.apache.commons.collections4.IteratorUtils;
+
+import java.util.AbstractCollection;
+
+/**
+ * Read-only <code>Collection</code> view over a Tinkerpop iterator. Every call to {@link #iterator()}
+ * asks the graph for a fresh iterator, so nothing is materialised and the view always reflects
+ * the current graph. <code>size()</code> and <code>contains()</code> stream the iterator; subclasses
+ * override them with fast paths where the adapter has a cheaper answer.
+ * <p>
+ * Mutators inherited from <code>AbstractCollection</code> throw <code>UnsupportedOperationException</code>.
+ */
+public abstract class LazyCollection<E> extends AbstractCollection<E> {
+
+    @Override
+    public int size() {
+        return IteratorUtils.size(iterator());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !iterator().hasNext();
+    }
+}
@@ -0,0 +1,711 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedEdge;
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
+import org.javatuples.Pair;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CsrGraph} read from a memory-mapped snapshot file, so that a process can start answering
+ * adjacency queries without loading the graph into Tinkerpop and compiling it first.
+ * <p>
+ * {@link #write(JungHyperGraph, File)} stores the topology seen through an adapter: the OUT and IN
+ * offsets, edge ordinals and neighbour indices of a {@link CsrSnapshot}, the endpoints and labels of
+ * every element, and the element ids sorted for binary search. {@link #open(File, Graph)} maps the file
+ * read-only and reads the arrays in place, so opening costs no parsing and the adjacency stays off the heap.
+ * Wrap the result in a {@link CompiledJungGraph} to run JUNG algorithms on it.
+ * <p>
+ * Vertices and edges are resolved on every call to {@link #vertex(int)} and {@link #edge(int)}: by id in
+ * the Tinkerpop graph passed to {@link #open(File, Graph)}, or as detached elements carrying only their
+ * id and label when no graph is given. Resolved elements are equal to, but not the same objects as, the
+ * elements of the graph the file was written from. Only <code>Integer</code>, <code>Long</code> and
+ * <code>String</code> ids can be stored, and a file can be at most 2 GB.
+ */
+public final class MappedCsrSnapshot implements CsrGraph {
+
+    // "JCSR"
+    private static final int MAGIC = 0x4A435352;
+    private static final int VERSION = 1;
+
+    private static final byte INT_IDS = 1;
+    private static final byte LONG_IDS = 2;
+    private static final byte STRING_IDS = 3;
+
+    private final File file;
+    private final Graph graph;
+    private final int vertexCount;
+    private final int edgeCount;
+
+    private final IntBuffer outOffsets;
+    private final IntBuffer outEdges;
+    private final IntBuffer outTargets;
+    private final IntBuffer inOffsets;
+    private final IntBuffer inEdges;
+    private final IntBuffer inSources;
+    private final IntBuffer edgeSources;
+    private final IntBuffer edgeTargets;
+    private final IntBuffer vertexLabels;
+    private final IntBuffer edgeLabels;
+    private final IdColumn vertexIds;
+    private final IdColumn edgeIds;
+    private final String[] labels;
+
+    private MappedCsrSnapshot(File file, ByteBuffer buffer, Graph graph) throws IOException {
+        this.file = file;
+        this.graph = graph;
+        Cursor cursor = new Cursor(file, buffer);
+        ByteBuffer header = cursor.bytes(24);
+        if (header.getInt() != MAGIC) {
+            String msg = file + " is not a CSR snapshot file";
+            throw new IOException(msg);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            String msg = file + " has snapshot format version " + version + ", expected " + VERSION;
+            throw new IOException(msg);
+        }
+        vertexCount = header.getInt();
+        edgeCount = header.getInt();
+        byte vertexIdType = header.get();
+        byte edgeIdType = header.get();
+        header.getShort();
+        int labelCount = header.getInt();
+
+        outOffsets = cursor.ints(vertexCount + 1);
+        outEdges = cursor.ints(edgeCount);
+        outTargets = cursor.ints(edgeCount);
+        inOffsets = cursor.ints(vertexCount + 1);
+        inEdges = cursor.ints(edgeCount);
+        inSources = cursor.ints(edgeCount);
+        edgeSources = cursor.ints(edgeCount);
+        edgeTargets = cursor.ints(edgeCount);
+        vertexLabels = cursor.ints(vertexCount);
+        edgeLabels = cursor.ints(edgeCount);
+        vertexIds = new IdColumn(cursor, vertexIdType, vertexCount);
+        edgeIds = new IdColumn(cursor, edgeIdType, edgeCount);
+
+        IdColumn labelColumn = new IdColumn(cursor, STRING_IDS, labelCount);
+        labels = new String[labelCount];
+        for (int i = 0; i < labelCount; i++) {
+            labels[i] = (String) labelColumn.get(i);
+        }
+        cursor.checkEnd();
+    }
+
+    /**
+     * Maps a snapshot file whose elements resolve to detached vertices and edges with an id and a label.
+     *
+     * @param file a file written by {@link #write(CsrGraph, File)}
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped or is not a valid snapshot file
+     */
+    public static MappedCsrSnapshot open(File file) throws IOException {
+        return open(file, null);
+    }
+
+    /**
+     * Maps a snapshot file whose elements resolve by id in <code>graph</code>.
+     *
+     * @param file  a file written by {@link #write(CsrGraph, File)}
+     * @param graph the graph to resolve vertices and edges in, or <code>null</code> for detached elements
+     * @return the mapped snapshot
+     * @throws IOException if the file cannot be mapped or is not a valid snapshot file
+     */
+    public static MappedCsrSnapshot open(File file, Graph graph) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                String msg = file + " is larger than 2 GB and cannot be mapped as one snapshot";
+                throw new IOException(msg);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new MappedCsrSnapshot(file, buffer, graph);
+        }
+    }
+
+    /**
+     * Writes the topology seen through <code>graph</code>, e.g. only the elements of a
+     * {@link FilteredJungGraph}. A {@link CompiledJungGraph} writes its snapshot as is.
+     *
+     * @param graph the adapter whose vertices and edges are written
+     * @param file  the file to create or overwrite
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(JungHyperGraph graph, File file) throws IOException {
+        CsrGraph snapshot = graph instanceof CompiledJungGraph
+                ? ((CompiledJungGraph) graph).getSnapshot()
+                : CsrSnapshot.compile(graph.allVertices(), graph.allEdges());
+        write(snapshot, file);
+    }
+
+    /**
+     * Writes <code>snapshot</code> to <code>file</code>, keeping its vertex indices and edge ordinals.
+     *
+     * @param snapshot the topology to write
+     * @param file     the file to create or overwrite
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the element ids are not all <code>Integer</code>, all
+     *                                  <code>Long</code> or all <code>String</code>
+     */
+    public static void write(CsrGraph snapshot, File file) throws IOException {
+        int vertexCount = snapshot.vertexCount();
+        int edgeCount = snapshot.edgeCount();
+        Map<String, Integer> labelIndex = new LinkedHashMap<>();
+        Object[] vertexIds = new Object[vertexCount];
+        int[] vertexLabels = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            Vertex vertex = snapshot.vertex(i);
+            vertexIds[i] = vertex.id();
+            vertexLabels[i] = labelIndex(labelIndex, vertex.label());
+        }
+        Object[] edgeIds = new Object[edgeCount];
+        int[] edgeLabels = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            Edge edge = snapshot.edge(i);
+            edgeIds[i] = edge.id();
+            edgeLabels[i] = labelIndex(labelIndex, edge.label());
+        }
+        byte vertexIdType = idType(vertexIds, "vertex");
+        byte edgeIdType = idType(edgeIds, "edge");
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(vertexCount);
+            out.writeInt(edgeCount);
+            out.writeByte(vertexIdType);
+            out.writeByte(edgeIdType);
+            out.writeShort(0);
+            out.writeInt(labelIndex.size());
+
+            for (int v = 0; v < vertexCount; v++) {
+                out.writeInt(snapshot.outStart(v));
+            }
+            out.writeInt(edgeCount);
+            for (int slot = 0; slot < edgeCount; slot++) {
+                out.writeInt(snapshot.outEdge(slot));
+            }
+            for (int slot = 0; slot < edgeCount; slot++) {
+                out.writeInt(snapshot.outTarget(slot));
+            }
+            for (int v = 0; v < vertexCount; v++) {
+                out.writeInt(snapshot.inStart(v));
+            }
+            out.writeInt(edgeCount);
+            for (int slot = 0; slot < edgeCount; slot++) {
+                out.writeInt(snapshot.inEdge(slot));
+            }
+            for (int slot = 0; slot < edgeCount; slot++) {
+                out.writeInt(snapshot.inSource(slot));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                out.writeInt(snapshot.edgeSource(e));
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                out.writeInt(snapshot.edgeTarget(e));
+            }
+            writeInts(out, vertexLabels);
+            writeInts(out, edgeLabels);
+            writeIds(out, vertexIds, vertexIdType);
+            writeIds(out, edgeIds, edgeIdType);
+            writeIds(out, labelIndex.keySet().toArray(), STRING_IDS);
+        }
+    }
+
+    private static int labelIndex(Map<String, Integer> labelIndex, String label) {
+        Integer index = labelIndex.get(label);
+        if (index == null) {
+            index = labelIndex.size();
+            labelIndex.put(label, index);
+        }
+        return index;
+    }
+
+    private static byte idType(Object[] ids, String kind) {
+        Class<?> type = ids.length == 0 ? Integer.class : ids[0].getClass();
+        for (Object id : ids) {
+            if (id.getClass() != type) {
+                String msg = "All " + kind + " ids must have the same type, found " + type.getName()
+                        + " and " + id.getClass().getName();
+                throw new IllegalArgumentException(msg);
+            }
+        }
+        if (type == Integer.class) {
+            return INT_IDS;
+        } else if (type == Long.class) {
+            return LONG_IDS;
+        } else if (type == String.class) {
+            return STRING_IDS;
+        }
+        String msg = "Cannot write " + kind + " ids of type " + type.getName() + "; only Integer, Long and String ids are supported";
+        throw new IllegalArgumentException(msg);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Writes the ids followed by the element indices in ascending id order.
+     * String ids are written as UTF-8 after an offset table and ordered by their unsigned bytes.
+     */
+    private static void writeIds(DataOutputStream out, Object[] ids, byte type) throws IOException {
+        final Object[] keys;
+        if (type == STRING_IDS) {
+            keys = new Object[ids.length];
+            int offset = 0;
+            out.writeInt(offset);
+            for (int i = 0; i < ids.length; i++) {
+                keys[i] = ((String) ids[i]).getBytes(StandardCharsets.UTF_8);
+                offset += ((byte[]) keys[i]).length;
+                if (offset < 0) {
+                    String msg = "String ids take more than 2 GB";
+                    throw new IllegalArgumentException(msg);
+                }
+                out.writeInt(offset);
+            }
+            for (Object key : keys) {
+                out.write((byte[]) key);
+            }
+        } else {
+            keys = new Object[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                keys[i] = ((Number) ids[i]).longValue();
+                if (type == INT_IDS) {
+                    out.writeInt((Integer) ids[i]);
+                } else {
+                    out.writeLong((Long) ids[i]);
+                }
+            }
+        }
+
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return compareKeys(keys[a], keys[b]);
+            }
+        });
+        for (Integer index : order) {
+            out.writeInt(index);
+        }
+    }
+
+    private static int compareKeys(Object a, Object b) {
+        if (a instanceof Long) {
+            return Long.compare((Long) a, (Long) b);
+        }
+        byte[] x = (byte[]) a;
+        byte[] y = (byte[]) b;
+        int length = Math.min(x.length, y.length);
+        for (int i = 0; i < length; i++) {
+            if (x[i] != y[i]) {
+                return (x[i] & 0xff) - (y[i] & 0xff);
+            }
+        }
+        return x.length - y.length;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the id of vertex <code>index</code> without resolving the vertex.
+     */
+    public Object vertexId(int index) {
+        return vertexIds.get(index);
+    }
+
+    /**
+     * Returns the id of edge <code>ordinal</code> without resolving the edge.
+     */
+    public Object edgeId(int ordinal) {
+        return edgeIds.get(ordinal);
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Returns the dense index of <code>vertex</code>, or -1 if it was not written. A binary search over the ids.
+     */
+    @Override
+    public int indexOf(Vertex vertex) {
+        return vertexIds.indexOf(vertex.id());
+    }
+
+    /**
+     * Returns the ordinal of <code>edge</code>, or -1 if it was not written. A binary search over the ids.
+     */
+    @Override
+    public int indexOf(Edge edge) {
+        return edgeIds.indexOf(edge.id());
+    }
+
+    @Override
+    public Vertex vertex(int index) {
+        Object id = vertexIds.get(index);
+        if (graph != null) {
+            return resolve(graph.vertices(id), "Vertex", id);
+        }
+        return new DetachedVertex(id, labels[vertexLabels.get(index)], Collections.<String, Object>emptyMap());
+    }
+
+    @Override
+    public Edge edge(int ordinal) {
+        Object id = edgeIds.get(ordinal);
+        if (graph != null) {
+            return resolve(graph.edges(id), "Edge", id);
+        }
+        int source = edgeSources.get(ordinal);
+        int target = edgeTargets.get(ordinal);
+        return new DetachedEdge(id, labels[edgeLabels.get(ordinal)], Collections.<String, Object>emptyMap(),
+                new Pair<>(vertexIds.get(source), labels[vertexLabels.get(source)]),
+                new Pair<>(vertexIds.get(target), labels[vertexLabels.get(target)]));
+    }
+
+    private <T> T resolve(Iterator<T> iterator, String kind, Object id) {
+        if (!iterator.hasNext()) {
+            String msg = kind + " " + id + " of snapshot " + file + " is not in the graph";
+            throw new IllegalStateException(msg);
+        }
+        return iterator.next();
+    }
+
+    @Override
+    public int edgeSource(int edgeOrdinal) {
+        return edgeSources.get(edgeOrdinal);
+    }
+
+    @Override
+    public int edgeTarget(int edgeOrdinal) {
+        return edgeTargets.get(edgeOrdinal);
+    }
+
+    @Override
+    public int outStart(int vertex) {
+        return outOffsets.get(vertex);
+    }
+
+    @Override
+    public int outEnd(int vertex) {
+        return outOffsets.get(vertex + 1);
+    }
+
+    @Override
+    public int outEdge(int slot) {
+        return outEdges.get(slot);
+    }
+
+    @Override
+    public int outTarget(int slot) {
+        return outTargets.get(slot);
+    }
+
+    @Override
+    public int inStart(int vertex) {
+        return inOffsets.get(vertex);
+    }
+
+    @Override
+    public int inEnd(int vertex) {
+        return inOffsets.get(vertex + 1);
+    }
+
+    @Override
+    public int inEdge(int slot) {
+        return inEdges.get(slot);
+    }
+
+    @Override
+    public int inSource(int slot) {
+        return inSources.get(slot);
+    }
+
+    @Override
+    public int outDegree(int vertex) {
+        return outOffsets.get(vertex + 1) - outOffsets.get(vertex);
+    }
+
+    @Override
+    public int inDegree(int vertex) {
+        return inOffsets.get(vertex + 1) - inOffsets.get(vertex);
+    }
+
+    @Override
+    public int degree(int vertex) {
+        return outDegree(vertex) + inDegree(vertex);
+    }
+
+    @Override
+    public void outNeighbors(int vertex, IntConsumer consumer) {
+        for (int slot = outOffsets.get(vertex), end = outOffsets.get(vertex + 1); slot < end; slot++) {
+            consumer.accept(outTargets.get(slot));
+        }
+    }
+
+    @Override
+    public void inNeighbors(int vertex, IntConsumer consumer) {
+        for (int slot = inOffsets.get(vertex), end = inOffsets.get(vertex + 1); slot < end; slot++) {
+            consumer.accept(inSources.get(slot));
+        }
+    }
+
+    @Override
+    public void outEdges(int vertex, IntConsumer consumer) {
+        for (int slot = outOffsets.get(vertex), end = outOffsets.get(vertex + 1); slot < end; slot++) {
+            consumer.accept(outEdges.get(slot));
+        }
+    }
+
+    @Override
+    public void inEdges(int vertex, IntConsumer consumer) {
+        for (int slot = inOffsets.get(vertex), end = inOffsets.get(vertex + 1); slot < end; slot++) {
+            consumer.accept(inEdges.get(slot));
+        }
+    }
+
+    @Override
+    public int findOutSlot(int source, int target) {
+        int end = outOffsets.get(source + 1);
+        int low = outOffsets.get(source);
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (outTargets.get(mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < end && outTargets.get(low) == target ? low : -1;
+    }
+
+    /**
+     * Returns a read-only list of the vertices in index order, resolving each vertex on access.
+     */
+    @Override
+    public List<Vertex> vertexList() {
+        return new AbstractList<Vertex>() {
+            @Override
+            public Vertex get(int index) {
+                return vertex(index);
+            }
+
+            @Override
+            public int size() {
+                return vertexCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Vertex && indexOf((Vertex) o) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Returns a read-only list of the edges in ordinal order, resolving each edge on access.
+     */
+    @Override
+    public List<Edge> edgeList() {
+        return new AbstractList<Edge>() {
+            @Override
+            public Edge get(int index) {
+                return edge(index);
+            }
+
+            @Override
+            public int size() {
+                return edgeCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Edge && indexOf((Edge) o) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Reads consecutive sections of the mapped file.
+     */
+    private static final class Cursor {
+        private final File file;
+        private final ByteBuffer buffer;
+        private int position;
+
+        Cursor(File file, ByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        ByteBuffer bytes(long length) throws IOException {
+            if (length < 0 || position + length > buffer.limit()) {
+                String msg = file + " is truncated or corrupt at byte " + position;
+                throw new IOException(msg);
+            }
+            ByteBuffer section = buffer.duplicate();
+            section.position(position);
+            section.limit(position + (int) length);
+            position += (int) length;
+            return section.slice();
+        }
+
+        IntBuffer ints(int count) throws IOException {
+            return bytes(4L * count).asIntBuffer();
+        }
+
+        LongBuffer longs(int count) throws IOException {
+            return bytes(8L * count).asLongBuffer();
+        }
+
+        void checkEnd() throws IOException {
+            if (position != buffer.limit()) {
+                String msg = file + " has " + (buffer.limit() - position) + " unexpected trailing bytes";
+                throw new IOException(msg);
+            }
+        }
+    }
+
+    /**
+     * The ids of the vertices or edges, and their indices in ascending id order.
+     */
+    private static final class IdColumn {
+        private final byte type;
+        private final IntBuffer ints;
+        private final LongBuffer longs;
+        private final IntBuffer offsets;
+        private final ByteBuffer bytes;
+        private final IntBuffer order;
+
+        IdColumn(Cursor cursor, byte type, int count) throws IOException {
+            this.type = type;
+            switch (type) {
+                case INT_IDS:
+                    ints = cursor.ints(count);
+                    longs = null;
+                    offsets = null;
+                    bytes = null;
+                    break;
+                case LONG_IDS:
+                    ints = null;
+                    longs = cursor.longs(count);
+                    offsets = null;
+                    bytes = null;
+                    break;
+                case STRING_IDS:
+                    ints = null;
+                    longs = null;
+                    offsets = cursor.ints(count + 1);
+                    bytes = cursor.bytes(offsets.get(count));
+                    break;
+                default:
+                    String msg = cursor.file + " has unknown id type " + type;
+                    throw new IOException(msg);
+            }
+            order = cursor.ints(count);
+        }
+
+        Object get(int index) {
+            switch (type) {
+                case INT_IDS:
+                    return ints.get(index);
+                case LONG_IDS:
+                    return longs.get(index);
+                default:
+                    byte[] utf8 = new byte[offsets.get(index + 1) - offsets.get(index)];
+                    ByteBuffer section = bytes.duplicate();
+                    section.position(offsets.get(index));
+                    section.get(utf8);
+                    return new String(utf8, StandardCharsets.UTF_8);
+            }
+        }
+
+        /**
+         * Returns the index of the element with <code>id</code>, or -1. Like a hash lookup on the
+         * original ids, an id of another type than the written ones is never found.
+         */
+        int indexOf(Object id) {
+            long number = 0;
+            byte[] utf8 = null;
+            if (type == INT_IDS && id instanceof Integer || type == LONG_IDS && id instanceof Long) {
+                number = ((Number) id).longValue();
+            } else if (type == STRING_IDS && id instanceof String) {
+                utf8 = ((String) id).getBytes(StandardCharsets.UTF_8);
+            } else {
+                return -1;
+            }
+            int low = 0;
+            int high = order.limit() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int index = order.get(mid);
+                int comparison = utf8 == null ? Long.compare(number(index), number) : compareBytes(index, utf8);
+                if (comparison < 0) {
+                    low = mid + 1;
+                } else if (comparison > 0) {
+                    high = mid - 1;
+                } else {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private long number(int index) {
+            return type == INT_IDS ? ints.get(index) : longs.get(index);
+        }
+
+        private int compareBytes(int index, byte[] key) {
+            int start = offsets.get(index);
+            int length = offsets.get(index + 1) - start;
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int a = bytes.get(start + i) & 0xff;
+                int b = key[i] & 0xff;
+                if (a != b) {
+                    return a - b;
+                }
+            }
+            return length - key.length;
+        }
+    }
+}
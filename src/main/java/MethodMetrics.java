@@ -0,0 +1,175 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cumulative call count, time, materialized elements and allocation estimate of one adapter method,
+ * recorded by {@link InstrumentedJungGraph}. For the collection methods of a {@link JungHyperGraph} the
+ * total time is further split into the time spent in Tinkerpop iterators and the time spent copying the
+ * elements into the returned collection; the remainder is adapter overhead. Safe to update from several
+ * threads.
+ */
+public class MethodMetrics implements MethodMetricsMBean {
+
+    private final String method;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong iterationNanos = new AtomicLong();
+    private final AtomicLong copyNanos = new AtomicLong();
+    private final AtomicLong elements = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+
+    public MethodMetrics(String method) {
+        this.method = method;
+    }
+
+    void record(long nanos, long iterated, long copied, long materialized, long allocated) {
+        calls.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        if (iterated > 0) {
+            iterationNanos.addAndGet(iterated);
+        }
+        if (copied > 0) {
+            copyNanos.addAndGet(copied);
+        }
+        if (materialized > 0) {
+            elements.addAndGet(materialized);
+        }
+        if (allocated > 0) {
+            bytes.addAndGet(allocated);
+        }
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.get();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long count = calls.get();
+        return count == 0 ? 0 : (double) totalNanos.get() / count;
+    }
+
+    /**
+     * Returns the part of {@link #getTotalNanos()} spent in Tinkerpop iterators.
+     */
+    @Override
+    public long getIterationNanos() {
+        return iterationNanos.get();
+    }
+
+    /**
+     * Returns the part of {@link #getTotalNanos()} spent adding elements to the returned collections.
+     */
+    @Override
+    public long getCopyNanos() {
+        return copyNanos.get();
+    }
+
+    /**
+     * Returns the number of elements copied into collections returned by this method.
+     */
+    @Override
+    public long getElementsMaterialized() {
+        return elements.get();
+    }
+
+    /**
+     * Returns an estimate of the heap allocated for the collections returned by this method, in bytes.
+     */
+    @Override
+    public long getEstimatedBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public void reset() {
+        calls.set(0);
+        totalNanos.set(0);
+        iterationNanos.set(0);
+        copyNanos.set(0);
+        elements.set(0);
+        bytes.set(0);
+    }
+
+    /**
+     * Returns a copy of the current values. The counters are read one at a time, so a snapshot taken
+     * during calls may mix values from before and after a call.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(method, calls.get(), totalNanos.get(), iterationNanos.get(), copyNanos.get(),
+                elements.get(), bytes.get());
+    }
+
+    /**
+     * Immutable copy of the metrics of one method.
+     */
+    public static final class Snapshot {
+        private final String method;
+        private final long calls;
+        private final long totalNanos;
+        private final long iterationNanos;
+        private final long copyNanos;
+        private final long elementsMaterialized;
+        private final long estimatedBytes;
+
+        Snapshot(String method, long calls, long totalNanos, long iterationNanos, long copyNanos,
+                 long elementsMaterialized, long estimatedBytes) {
+            this.method = method;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.iterationNanos = iterationNanos;
+            this.copyNanos = copyNanos;
+            this.elementsMaterialized = elementsMaterialized;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public double getMeanNanos() {
+            return calls == 0 ? 0 : (double) totalNanos / calls;
+        }
+
+        public long getIterationNanos() {
+            return iterationNanos;
+        }
+
+        public long getCopyNanos() {
+            return copyNanos;
+        }
+
+        public long getElementsMaterialized() {
+            return elementsMaterialized;
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s calls=%d, total=%.3f ms (iteration=%.3f ms, copy=%.3f ms), mean=%.0f ns,"
+                            + " materialized=%d, ~%d KB", method, calls, totalNanos / 1e6, iterationNanos / 1e6,
+                    copyNanos / 1e6, getMeanNanos(), elementsMaterialized, estimatedBytes / 1024);
+        }
+    }
+}
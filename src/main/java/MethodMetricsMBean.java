@@ -0,0 +1,23 @@
+/**
+ * JMX view of the {@link MethodMetrics} of one adapter method.
+ */
+public interface MethodMetricsMBean {
+
+    String getMethod();
+
+    long getCalls();
+
+    long getTotalNanos();
+
+    double getMeanNanos();
+
+    long getIterationNanos();
+
+    long getCopyNanos();
+
+    long getElementsMaterialized();
+
+    long getEstimatedBytes();
+
+    void reset();
+}
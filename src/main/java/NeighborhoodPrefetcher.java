@@ -0,0 +1,318 @@
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills the {@link AdjacencyCache} of a {@link CachingJungGraph} ahead of a BFS- or Dijkstra-style
+ * algorithm, so that its per-vertex <code>getOutEdges</code> and <code>getSuccessors</code> calls are
+ * cache hits instead of one storage round trip each.
+ * <p>
+ * The edges of a frontier are read with one Gremlin traversal per batch of vertices, e.g.
+ * <code>g.V(ids).outE()</code>, issued through <code>graph.traversal()</code> of the backing graph.
+ * Batches are handed out to a fixed number of worker threads. {@link #prefetch(Collection, Direction, int)}
+ * repeats this level by level for the vertices within a number of hops of the sources. Vertices whose
+ * edges are already cached are not read again, and edges outside a {@link FilteredJungGraph} view are
+ * dropped as the view would drop them.
+ * <p>
+ * BOTH is read as one OUT and one IN traversal per batch, and cached in that order.
+ */
+public class NeighborhoodPrefetcher {
+
+    private final CachingJungGraph graph;
+    private final JungHyperGraph delegate;
+    private final AdjacencyCache cache;
+    private int batchSize = 1000;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public NeighborhoodPrefetcher(CachingJungGraph graph) {
+        this.graph = graph;
+        this.delegate = graph.getDelegate();
+        this.cache = graph.getCache();
+    }
+
+    public CachingJungGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Sets the number of vertices read by one traversal. Defaults to 1000.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            String msg = "Batch size must be at least 1: " + batchSize;
+            throw new IllegalArgumentException(msg);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of traversals run at the same time. Defaults to the number of available processors.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String msg = "Parallelism must be at least 1: " + parallelism;
+            throw new IllegalArgumentException(msg);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Caches the edges of <code>vertices</code> in <code>direction</code> and blocks until all are cached.
+     */
+    public Report prefetch(Collection<? extends Vertex> vertices, Direction direction) {
+        return prefetch(vertices, direction, 0);
+    }
+
+    /**
+     * Caches the edges in <code>direction</code> of every vertex reachable from <code>sources</code> in at
+     * most <code>hops</code> steps along such edges, one level at a time, and blocks until all are cached.
+     * A search from the sources that stops within <code>hops</code> steps then reads nothing from storage,
+     * as long as the cache holds the whole neighbourhood.
+     */
+    public Report prefetch(Collection<? extends Vertex> sources, Direction direction, int hops) {
+        if (hops < 0) {
+            String msg = "The number of hops must not be negative: " + hops;
+            throw new IllegalArgumentException(msg);
+        }
+        long start = System.nanoTime();
+        Set<Object> seen = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+        List<Vertex> frontier = new ArrayList<>();
+        for (Vertex source : sources) {
+            if (seen.add(source.id())) {
+                frontier.add(source);
+            }
+        }
+
+        int levels = 0;
+        int cached = 0;
+        int fetched = 0;
+        int roundTrips = 0;
+        AtomicLong edges = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (int level = 0; level <= hops && !frontier.isEmpty(); level++) {
+                // The last level is cached but not expanded
+                Queue<Vertex> next = level < hops ? new ConcurrentLinkedQueue<Vertex>() : null;
+                List<Vertex> missing = new ArrayList<>();
+                for (Vertex vertex : frontier) {
+                    Edge[] entry = cache.peek(vertex, direction);
+                    if (entry == null) {
+                        missing.add(vertex);
+                    } else {
+                        cached++;
+                        expand(vertex, direction, entry, seen, next);
+                    }
+                }
+                int batches = (missing.size() + batchSize - 1) / batchSize;
+                load(executor, missing, batches, direction, seen, next, edges);
+                fetched += missing.size();
+                roundTrips += direction == Direction.BOTH ? 2 * batches : batches;
+                levels++;
+                frontier = next == null ? Collections.<Vertex>emptyList() : new ArrayList<>(next);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Report(cached + fetched, cached, fetched, edges.get(), roundTrips, levels, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the traversal for the OUT or IN edges of the vertices with the given ids. Override to route
+     * the query to another traversal source.
+     */
+    protected Iterator<Edge> fetch(Object[] ids, Direction direction) {
+        GraphTraversalSource g = delegate.getGraph().traversal();
+        return direction == Direction.OUT ? g.V(ids).outE() : g.V(ids).inE();
+    }
+
+    private void load(ExecutorService executor, final List<Vertex> vertices, final int batches,
+                      final Direction direction, final Set<Object> seen, final Queue<Vertex> next,
+                      final AtomicLong edges) {
+        int workers = Math.min(parallelism, batches);
+        final AtomicInteger nextBatch = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int b = nextBatch.getAndIncrement(); b < batches; b = nextBatch.getAndIncrement()) {
+                        int from = b * batchSize;
+                        int to = Math.min(from + batchSize, vertices.size());
+                        edges.addAndGet(loadBatch(vertices.subList(from, to), direction, seen, next));
+                    }
+                    return null;
+                }
+            });
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while prefetching adjacency", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Reads and caches the edges of one batch, returning the number of edges read.
+     */
+    private int loadBatch(List<Vertex> batch, Direction direction, Set<Object> seen, Queue<Vertex> next) {
+        Object[] ids = new Object[batch.size()];
+        Map<Object, List<Edge>> adjacency = new HashMap<>(2 * ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = batch.get(i).id();
+            adjacency.put(ids[i], new ArrayList<Edge>());
+        }
+        if (direction != Direction.IN) {
+            group(fetch(ids, Direction.OUT), Direction.OUT, adjacency);
+        }
+        if (direction != Direction.OUT) {
+            group(fetch(ids, Direction.IN), Direction.IN, adjacency);
+        }
+
+        int count = 0;
+        for (Vertex vertex : batch) {
+            List<Edge> loaded = adjacency.get(vertex.id());
+            Edge[] edges = loaded.toArray(new Edge[loaded.size()]);
+            cache.put(vertex, direction, edges);
+            expand(vertex, direction, edges, seen, next);
+            count += edges.length;
+        }
+        return count;
+    }
+
+    /**
+     * Files every edge under the batch vertex it was read from: its source for OUT, its target for IN.
+     */
+    private void group(Iterator<Edge> edges, Direction direction, Map<Object, List<Edge>> adjacency) {
+        while (edges.hasNext()) {
+            Edge edge = edges.next();
+            if (delegate.includes(edge)) {
+                Vertex vertex = direction == Direction.OUT ? edge.outVertex() : edge.inVertex();
+                List<Edge> list = adjacency.get(vertex.id());
+                if (list != null) {
+                    list.add(edge);
+                }
+            }
+        }
+    }
+
+    private static void expand(Vertex vertex, Direction direction, Edge[] edges, Set<Object> seen,
+                               Queue<Vertex> next) {
+        if (next == null) {
+            return;
+        }
+        for (Edge edge : edges) {
+            Vertex neighbor = JungHyperGraph.opposite(vertex, direction, edge);
+            if (seen.add(neighbor.id())) {
+                next.add(neighbor);
+            }
+        }
+    }
+
+    /**
+     * Summary of one prefetch.
+     */
+    public static final class Report {
+        private final int vertices;
+        private final int alreadyCached;
+        private final int fetched;
+        private final long edges;
+        private final int roundTrips;
+        private final int levels;
+        private final long elapsedNanos;
+
+        Report(int vertices, int alreadyCached, int fetched, long edges, int roundTrips, int levels,
+               long elapsedNanos) {
+            this.vertices = vertices;
+            this.alreadyCached = alreadyCached;
+            this.fetched = fetched;
+            this.edges = edges;
+            this.roundTrips = roundTrips;
+            this.levels = levels;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the number of distinct vertices visited.
+         */
+        public int getVertices() {
+            return vertices;
+        }
+
+        public int getAlreadyCached() {
+            return alreadyCached;
+        }
+
+        public int getFetched() {
+            return fetched;
+        }
+
+        /**
+         * Returns the number of edges read from the backing graph.
+         */
+        public long getEdges() {
+            return edges;
+        }
+
+        /**
+         * Returns the number of traversals issued.
+         */
+        public int getRoundTrips() {
+            return roundTrips;
+        }
+
+        /**
+         * Returns the number of frontiers processed, i.e. one more than the hops actually expanded.
+         */
+        public int getLevels() {
+            return levels;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d vertices in %d levels: %d fetched with %d edges in %d round trips, %d already cached, in %.1f ms",
+                    vertices, levels, fetched, edges, roundTrips, alreadyCached, elapsedNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,516 @@
+import edu.uci.ics.jung.algorithms.scoring.VertexScorer;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded betweenness and closeness centrality over an {@link IntGraph}, with the same
+ * semantics as JUNG's unweighted <code>BetweennessCentrality</code> and <code>ClosenessCentrality</code>
+ * on a directed graph:
+ * <ul>
+ * <li/>betweenness is Brandes' sum of pair dependencies over shortest paths that follow edge directions;
+ * parallel edges count as separate paths and self-loops are ignored;
+ * <li/>closeness is the number of vertices a vertex reaches divided by the sum of its distances to them,
+ * and <code>NaN</code> for a vertex that reaches no other vertex.
+ * </ul>
+ * One breadth-first search runs per source vertex. Sources are handed out to worker tasks on a fork-join
+ * pool; each worker owns its distance, path count, dependency and queue arrays and reuses them for every
+ * source, resetting only the entries the previous search touched.
+ * <p>
+ * With {@link #setPivots(int)} only a random sample of sources is searched. Betweenness is then the
+ * sampled dependency sum scaled by <code>N / pivots</code>, and closeness of non-pivots is estimated from
+ * their distances to the pivots, found by a second, backward search per pivot. The standard error of
+ * every estimate is available next to it.
+ */
+public class ParallelCentrality {
+
+    private final IntGraph graph;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int pivots;
+    private long seed = 42;
+
+    private double[] betweenness;
+    private double[] betweennessErrors;
+    private double[] closeness;
+    private double[] closenessErrors;
+    private Report lastReport;
+
+    public ParallelCentrality(IntGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Runs on the elements seen through <code>graph</code>, compiled once with {@link JungHyperGraph#toIntGraph()}.
+     */
+    public ParallelCentrality(JungHyperGraph graph) {
+        this(graph.toIntGraph());
+    }
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String msg = "Parallelism must be at least 1: " + parallelism;
+            throw new IllegalArgumentException(msg);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of randomly chosen source vertices to search, or 0 to search from every vertex.
+     * Defaults to 0, the exact scores. Values of at least the vertex count also give exact scores.
+     */
+    public void setPivots(int pivots) {
+        if (pivots < 0) {
+            String msg = "The number of pivots must not be negative: " + pivots;
+            throw new IllegalArgumentException(msg);
+        }
+        this.pivots = pivots;
+    }
+
+    public int getPivots() {
+        return pivots;
+    }
+
+    /**
+     * Sets the seed of the pivot sample, so that sampled runs can be repeated. Defaults to 42.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Computes betweenness and closeness of every vertex and blocks until done.
+     */
+    public Report evaluate() {
+        long start = System.nanoTime();
+        final int vertexCount = graph.vertexCount();
+        final boolean sampled = pivots > 0 && pivots < vertexCount;
+        final int[] sources = sampled ? samplePivots(vertexCount) : identity(vertexCount);
+        final AtomicInteger nextSource = new AtomicInteger();
+        final double[] sourceCloseness = new double[vertexCount];
+        Arrays.fill(sourceCloseness, Double.NaN);
+
+        int workerCount = Math.min(parallelism, Math.max(1, sources.length));
+        List<Callable<Worker>> tasks = new ArrayList<>(workerCount);
+        for (int w = 0; w < workerCount; w++) {
+            tasks.add(new Callable<Worker>() {
+                @Override
+                public Worker call() {
+                    Worker worker = new Worker(vertexCount, sampled);
+                    for (int i = nextSource.getAndIncrement(); i < sources.length; i = nextSource.getAndIncrement()) {
+                        worker.run(sources[i], sourceCloseness);
+                    }
+                    return worker;
+                }
+            });
+        }
+
+        List<Worker> workers = new ArrayList<>(workerCount);
+        ForkJoinPool pool = new ForkJoinPool(workerCount);
+        try {
+            for (Future<Worker> future : pool.invokeAll(tasks)) {
+                workers.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing centrality", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            pool.shutdown();
+        }
+
+        combine(workers, sources, sourceCloseness, sampled);
+        // Math.max keeps a NaN, so a single pivot reports an unknown error rather than 0
+        double maxError = 0;
+        for (double error : betweennessErrors) {
+            maxError = Math.max(maxError, error);
+        }
+        lastReport = new Report(sources.length, vertexCount, maxError, System.nanoTime() - start);
+        return lastReport;
+    }
+
+    private int[] samplePivots(int vertexCount) {
+        // Partial Fisher-Yates shuffle: a sample without repetitions
+        int[] candidates = identity(vertexCount);
+        Random random = new Random(seed);
+        for (int i = 0; i < pivots; i++) {
+            int j = i + random.nextInt(vertexCount - i);
+            int tmp = candidates[i];
+            candidates[i] = candidates[j];
+            candidates[j] = tmp;
+        }
+        return Arrays.copyOf(candidates, pivots);
+    }
+
+    private static int[] identity(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i;
+        }
+        return result;
+    }
+
+    private void combine(List<Worker> workers, int[] sources, double[] sourceCloseness, boolean sampled) {
+        int n = graph.vertexCount();
+        int k = sources.length;
+        betweenness = new double[n];
+        betweennessErrors = new double[n];
+        closeness = sourceCloseness;
+        closenessErrors = new double[n];
+        if (!sampled) {
+            for (Worker worker : workers) {
+                for (int v = 0; v < n; v++) {
+                    betweenness[v] += worker.betweenness[v];
+                }
+            }
+            return;
+        }
+
+        double[] dependencySquares = new double[n];
+        double[] distanceSums = new double[n];
+        double[] distanceSquares = new double[n];
+        int[] reachedPivots = new int[n];
+        for (Worker worker : workers) {
+            for (int v = 0; v < n; v++) {
+                betweenness[v] += worker.betweenness[v];
+                dependencySquares[v] += worker.dependencySquares[v];
+                distanceSums[v] += worker.distanceSums[v];
+                distanceSquares[v] += worker.distanceSquares[v];
+                reachedPivots[v] += worker.reachedPivots[v];
+            }
+        }
+        boolean[] pivot = new boolean[n];
+        for (int source : sources) {
+            pivot[source] = true;
+        }
+        // Sampling without replacement shrinks the variance of the mean by (N - k) / (N - 1)
+        double correction = (double) (n - k) / (n - 1);
+        for (int v = 0; v < n; v++) {
+            // Each pivot s gives the unbiased estimate X_s = N * dependency_s(v) of the betweenness
+            double mean = (double) n * betweenness[v] / k;
+            double variance = k < 2 ? Double.NaN
+                    : Math.max(0, ((double) n * n * dependencySquares[v] - k * mean * mean) / (k - 1));
+            betweenness[v] = mean;
+            betweennessErrors[v] = Math.sqrt(variance / k * correction);
+
+            if (pivot[v]) {
+                continue;
+            }
+            int m = reachedPivots[v];
+            if (m == 0) {
+                closeness[v] = Double.NaN;
+                closenessErrors[v] = Double.NaN;
+                continue;
+            }
+            double meanDistance = distanceSums[v] / m;
+            closeness[v] = 1 / meanDistance;
+            double distanceVariance = m < 2 ? Double.NaN
+                    : Math.max(0, (distanceSquares[v] - m * meanDistance * meanDistance) / (m - 1));
+            // Delta method: the error of 1 / d is the error of d divided by d squared
+            closenessErrors[v] = Math.sqrt(distanceVariance / m) / (meanDistance * meanDistance);
+        }
+    }
+
+    private void checkEvaluated() {
+        if (betweenness == null) {
+            throw new IllegalStateException("evaluate() has not been called");
+        }
+    }
+
+    private int indexOrFail(Vertex vertex) {
+        int index = graph.indexOf(vertex);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " not an element of this graph");
+        }
+        return index;
+    }
+
+    /**
+     * Returns the betweenness of the vertex with index <code>index</code>, estimated when sampling.
+     */
+    public double getBetweenness(int index) {
+        checkEvaluated();
+        return betweenness[index];
+    }
+
+    /**
+     * Returns the standard error of {@link #getBetweenness(int)}: 0 for exact scores, <code>NaN</code>
+     * for a single pivot.
+     */
+    public double getBetweennessError(int index) {
+        checkEvaluated();
+        return betweennessErrors[index];
+    }
+
+    /**
+     * Returns the closeness of the vertex with index <code>index</code>, estimated from the pivots
+     * it reaches when sampling.
+     */
+    public double getCloseness(int index) {
+        checkEvaluated();
+        return closeness[index];
+    }
+
+    /**
+     * Returns the standard error of {@link #getCloseness(int)}: 0 for exact scores, <code>NaN</code>
+     * when fewer than two pivots were reached.
+     */
+    public double getClosenessError(int index) {
+        checkEvaluated();
+        return closenessErrors[index];
+    }
+
+    /**
+     * Returns the betweenness scores in the shape of JUNG's <code>BetweennessCentrality</code>.
+     */
+    public VertexScorer<Vertex, Double> betweenness() {
+        return new VertexScorer<Vertex, Double>() {
+            @Override
+            public Double getVertexScore(Vertex vertex) {
+                return getBetweenness(indexOrFail(vertex));
+            }
+        };
+    }
+
+    /**
+     * Returns the closeness scores in the shape of JUNG's <code>ClosenessCentrality</code>.
+     */
+    public VertexScorer<Vertex, Double> closeness() {
+        return new VertexScorer<Vertex, Double>() {
+            @Override
+            public Double getVertexScore(Vertex vertex) {
+                return getCloseness(indexOrFail(vertex));
+            }
+        };
+    }
+
+    /**
+     * Returns the betweenness scores of the last {@link #evaluate()} for top-k, threshold and histogram
+     * queries, without copying them.
+     */
+    public VertexScores getBetweennessScores() {
+        checkEvaluated();
+        return new VertexScores(graph, betweenness);
+    }
+
+    /**
+     * Returns the closeness scores of the last {@link #evaluate()}, like {@link #getBetweennessScores()}.
+     */
+    public VertexScores getClosenessScores() {
+        checkEvaluated();
+        return new VertexScores(graph, closeness);
+    }
+
+    public Report getLastReport() {
+        return lastReport;
+    }
+
+    /**
+     * The searches of one worker thread, with its own reusable arrays and partial sums.
+     */
+    private final class Worker {
+        private final int[] distances;
+        private final double[] paths;
+        private final double[] dependencies;
+        // Vertices in the order they were reached; popped from the end it is Brandes' stack
+        private final int[] order;
+        private int reached;
+
+        private final double[] betweenness;
+        private final double[] dependencySquares;
+        private final double[] distanceSums;
+        private final double[] distanceSquares;
+        private final int[] reachedPivots;
+
+        private final Forward forward = new Forward();
+        private final Backward backward = new Backward();
+        private final Reverse reverse = new Reverse();
+
+        Worker(int vertexCount, boolean sampled) {
+            distances = new int[vertexCount];
+            paths = new double[vertexCount];
+            dependencies = new double[vertexCount];
+            order = new int[vertexCount];
+            Arrays.fill(distances, -1);
+            betweenness = new double[vertexCount];
+            dependencySquares = sampled ? new double[vertexCount] : null;
+            distanceSums = sampled ? new double[vertexCount] : null;
+            distanceSquares = sampled ? new double[vertexCount] : null;
+            reachedPivots = sampled ? new int[vertexCount] : null;
+        }
+
+        void run(int source, double[] sourceCloseness) {
+            distances[source] = 0;
+            paths[source] = 1;
+            order[0] = source;
+            reached = 1;
+            for (int head = 0; head < reached; head++) {
+                forward.vertex = order[head];
+                graph.outNeighbors(forward.vertex, forward);
+            }
+
+            long distanceSum = 0;
+            for (int i = reached - 1; i > 0; i--) {
+                int x = order[i];
+                distanceSum += distances[x];
+                backward.vertex = x;
+                graph.inNeighbors(x, backward);
+                betweenness[x] += dependencies[x];
+                if (dependencySquares != null) {
+                    dependencySquares[x] += dependencies[x] * dependencies[x];
+                }
+            }
+            // Sources are distinct, so no other worker writes this entry
+            sourceCloseness[source] = reached == 1 ? Double.NaN : (reached - 1) / (double) distanceSum;
+            reset();
+
+            if (distanceSums != null) {
+                distances[source] = 0;
+                order[0] = source;
+                reached = 1;
+                for (int head = 0; head < reached; head++) {
+                    reverse.vertex = order[head];
+                    graph.inNeighbors(reverse.vertex, reverse);
+                }
+                for (int i = 1; i < reached; i++) {
+                    int v = order[i];
+                    distanceSums[v] += distances[v];
+                    distanceSquares[v] += (double) distances[v] * distances[v];
+                    reachedPivots[v]++;
+                }
+                reset();
+            }
+        }
+
+        private void reset() {
+            for (int i = 0; i < reached; i++) {
+                int v = order[i];
+                distances[v] = -1;
+                paths[v] = 0;
+                dependencies[v] = 0;
+            }
+            reached = 0;
+        }
+
+        /**
+         * Breadth-first step along the out-edges of <code>vertex</code>, counting shortest paths.
+         */
+        private final class Forward implements IntGraph.IntConsumer {
+            private int vertex;
+
+            @Override
+            public void accept(int target) {
+                if (target == vertex) {
+                    return;
+                }
+                int distance = distances[vertex] + 1;
+                if (distances[target] < 0) {
+                    distances[target] = distance;
+                    order[reached++] = target;
+                }
+                if (distances[target] == distance) {
+                    paths[target] += paths[vertex];
+                }
+            }
+        }
+
+        /**
+         * Passes the dependency of <code>vertex</code> to its shortest-path predecessors.
+         */
+        private final class Backward implements IntGraph.IntConsumer {
+            private int vertex;
+
+            @Override
+            public void accept(int predecessor) {
+                if (predecessor != vertex && distances[predecessor] == distances[vertex] - 1) {
+                    dependencies[predecessor] += paths[predecessor] / paths[vertex] * (1 + dependencies[vertex]);
+                }
+            }
+        }
+
+        /**
+         * Breadth-first step along the in-edges of <code>vertex</code>, for distances to a pivot.
+         */
+        private final class Reverse implements IntGraph.IntConsumer {
+            private int vertex;
+
+            @Override
+            public void accept(int source) {
+                if (distances[source] < 0) {
+                    distances[source] = distances[vertex] + 1;
+                    order[reached++] = source;
+                }
+            }
+        }
+    }
+
+    /**
+     * Summary of one {@link #evaluate()}.
+     */
+    public static final class Report {
+        private final int sources;
+        private final int vertexCount;
+        private final double maxBetweennessError;
+        private final long elapsedNanos;
+
+        Report(int sources, int vertexCount, double maxBetweennessError, long elapsedNanos) {
+            this.sources = sources;
+            this.vertexCount = vertexCount;
+            this.maxBetweennessError = maxBetweennessError;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Returns the number of source vertices searched.
+         */
+        public int getSources() {
+            return sources;
+        }
+
+        public boolean isExact() {
+            return sources == vertexCount;
+        }
+
+        /**
+         * Returns the largest standard error of a betweenness estimate, 0 for exact scores and
+         * <code>NaN</code> when a single pivot leaves it unknown.
+         */
+        public double getMaxBetweennessError() {
+            return maxBetweennessError;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d of %d sources%s in %.1f ms", sources, vertexCount,
+                    isExact() ? ", exact" : String.format(", max betweenness error %.3g", maxBetweennessError),
+                    elapsedNanos / 1e6);
+        }
+    }
+}
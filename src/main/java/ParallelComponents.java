@@ -0,0 +1,484 @@
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Multi-threaded weakly and strongly connected components over an {@link IntGraph}, as a replacement
+ * for JUNG's <code>WeakComponentClusterer</code>, which is single-threaded and builds a neighbour set
+ * for every vertex it visits.
+ * <ul>
+ * <li/>{@link #weaklyConnected()} unions the endpoints of all edges in parallel into a lock-free
+ * union-find forest: roots are linked with a compare-and-set, always below the smaller vertex index,
+ * and paths are halved on every lookup.
+ * <li/>{@link #stronglyConnected()} follows edge directions. Each round first trims vertices without
+ * remaining in- or out-neighbours, which are components of their own. It then propagates the largest
+ * vertex index forward along the edges until nothing changes. Every vertex that kept its own index
+ * is the root of a component made of the vertices with its colour that reach it, which are collected
+ * by one backward search per root, all searches running in parallel.
+ * </ul>
+ * Both return {@link Components}: a dense component id per vertex plus component sizes.
+ */
+public class ParallelComponents {
+
+    private static final int MIN_GRAIN = 1024;
+    private static final int UNASSIGNED = -1;
+
+    private final IntGraph graph;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    // Weak components: union-find parents
+    private AtomicIntegerArray parents;
+
+    // Strong components: root of the component of every vertex, and the propagated colours
+    private int[] roots;
+    private int[] colors;
+    private int[] colorRoots;
+
+    public ParallelComponents(IntGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Runs on the elements seen through <code>graph</code>, compiled once with {@link JungHyperGraph#toIntGraph()}.
+     */
+    public ParallelComponents(JungHyperGraph graph) {
+        this(graph.toIntGraph());
+    }
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String msg = "Parallelism must be at least 1: " + parallelism;
+            throw new IllegalArgumentException(msg);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public IntGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Finds the weakly connected components, ignoring edge directions. Same clusters as JUNG's
+     * <code>WeakComponentClusterer</code>.
+     */
+    public Components weaklyConnected() {
+        long start = System.nanoTime();
+        int vertexCount = graph.vertexCount();
+        parents = new AtomicIntegerArray(vertexCount);
+        for (int v = 0; v < vertexCount; v++) {
+            parents.set(v, v);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            int edgeCount = graph.edgeCount();
+            pool.invoke(new Step(Phase.UNION, 0, edgeCount, grain(edgeCount)));
+            pool.invoke(new Step(Phase.FLATTEN, 0, vertexCount, grain(vertexCount)));
+        } finally {
+            pool.shutdown();
+        }
+        int[] rootOf = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            rootOf[v] = parents.get(v);
+        }
+        parents = null;
+        return new Components(graph, rootOf, 1, System.nanoTime() - start);
+    }
+
+    /**
+     * Finds the strongly connected components, following edge directions as a {@link JungGraph} does.
+     */
+    public Components stronglyConnected() {
+        long start = System.nanoTime();
+        int vertexCount = graph.vertexCount();
+        roots = new int[vertexCount];
+        colors = new int[vertexCount];
+        Arrays.fill(roots, UNASSIGNED);
+        int grain = grain(vertexCount);
+        int remaining = vertexCount;
+        int rounds = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (remaining > 0) {
+                rounds++;
+                remaining -= pool.invoke(new Step(Phase.TRIM, 0, vertexCount, grain));
+                if (remaining == 0) {
+                    break;
+                }
+                pool.invoke(new Step(Phase.RESET_COLORS, 0, vertexCount, grain));
+                while (pool.invoke(new Step(Phase.PROPAGATE, 0, vertexCount, grain)) > 0) {
+                    // Repeat until a whole pass changes no colour
+                }
+                colorRoots = collectColorRoots();
+                remaining -= pool.invoke(new Step(Phase.COLLECT, 0, colorRoots.length,
+                        Math.max(1, colorRoots.length / (parallelism * 8))));
+            }
+        } finally {
+            pool.shutdown();
+        }
+        int[] rootOf = roots;
+        roots = null;
+        colors = null;
+        colorRoots = null;
+        return new Components(graph, rootOf, rounds, System.nanoTime() - start);
+    }
+
+    private int grain(int size) {
+        return Math.max(MIN_GRAIN, size / (parallelism * 8));
+    }
+
+    private int[] collectColorRoots() {
+        int count = 0;
+        int[] result = new int[16];
+        for (int v = 0; v < colors.length; v++) {
+            if (roots[v] == UNASSIGNED && colors[v] == v) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = v;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private int find(int vertex) {
+        int v = vertex;
+        while (true) {
+            int parent = parents.get(v);
+            if (parent == v) {
+                return v;
+            }
+            int grandparent = parents.get(parent);
+            if (grandparent != parent) {
+                parents.compareAndSet(v, parent, grandparent);
+            }
+            v = grandparent;
+        }
+    }
+
+    private void union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            // Linking the larger root below the smaller one keeps parents[v] <= v, so no cycle can form
+            int high = Math.max(rootA, rootB);
+            int low = Math.min(rootA, rootB);
+            if (parents.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    private enum Phase {
+        /** Unions the endpoints of a range of edges. */
+        UNION,
+        /** Points every vertex directly at its root. */
+        FLATTEN,
+        /** Assigns vertices without remaining in- or out-neighbours to their own component; returns their number. */
+        TRIM,
+        /** Gives every remaining vertex its own index as colour. */
+        RESET_COLORS,
+        /** Pulls the largest colour from the remaining in-neighbours; returns the number of changed colours. */
+        PROPAGATE,
+        /** Collects the component of a range of colour roots; returns the number of vertices assigned. */
+        COLLECT
+    }
+
+    private class Step extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Phase phase;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        Step(Phase phase, int from, int to, int grain) {
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= grain) {
+                return process();
+            }
+            int mid = (from + to) >>> 1;
+            Step left = new Step(phase, from, mid, grain);
+            left.fork();
+            int right = new Step(phase, mid, to, grain).compute();
+            return left.join() + right;
+        }
+
+        private int process() {
+            switch (phase) {
+                case UNION:
+                    for (int e = from; e < to; e++) {
+                        union(graph.edgeSource(e), graph.edgeTarget(e));
+                    }
+                    return 0;
+                case FLATTEN:
+                    for (int v = from; v < to; v++) {
+                        parents.set(v, find(v));
+                    }
+                    return 0;
+                case TRIM:
+                    return trim();
+                case RESET_COLORS:
+                    for (int v = from; v < to; v++) {
+                        colors[v] = v;
+                    }
+                    return 0;
+                case PROPAGATE:
+                    return propagate();
+                default:
+                    return collect();
+            }
+        }
+
+        private int trim() {
+            RemainingCounter counter = new RemainingCounter();
+            int trimmed = 0;
+            for (int v = from; v < to; v++) {
+                if (roots[v] != UNASSIGNED) {
+                    continue;
+                }
+                counter.reset(v);
+                graph.inNeighbors(v, counter);
+                boolean source = counter.count == 0;
+                if (!source) {
+                    counter.reset(v);
+                    graph.outNeighbors(v, counter);
+                }
+                // Neighbours trimmed concurrently are components of their own, so reading them either way is safe
+                if (source || counter.count == 0) {
+                    roots[v] = v;
+                    trimmed++;
+                }
+            }
+            return trimmed;
+        }
+
+        private int propagate() {
+            LargestColor largest = new LargestColor();
+            int changed = 0;
+            for (int v = from; v < to; v++) {
+                if (roots[v] != UNASSIGNED) {
+                    continue;
+                }
+                // Colours only grow, so stale reads of other ranges are repaired by the next pass
+                largest.reset(v);
+                graph.inNeighbors(v, largest);
+                if (largest.color > colors[v]) {
+                    colors[v] = largest.color;
+                    changed++;
+                }
+            }
+            return changed;
+        }
+
+        private int collect() {
+            BackwardSearch search = new BackwardSearch();
+            int assigned = 0;
+            for (int i = from; i < to; i++) {
+                assigned += search.run(colorRoots[i]);
+            }
+            return assigned;
+        }
+    }
+
+    /**
+     * Counts the neighbours of a vertex, other than itself, that have no component yet.
+     */
+    private class RemainingCounter implements IntGraph.IntConsumer {
+        private int vertex;
+        private int count;
+
+        void reset(int vertex) {
+            this.vertex = vertex;
+            this.count = 0;
+        }
+
+        @Override
+        public void accept(int neighbor) {
+            if (neighbor != vertex && roots[neighbor] == UNASSIGNED) {
+                count++;
+            }
+        }
+    }
+
+    private class LargestColor implements IntGraph.IntConsumer {
+        private int color;
+
+        void reset(int vertex) {
+            this.color = colors[vertex];
+        }
+
+        @Override
+        public void accept(int neighbor) {
+            if (roots[neighbor] == UNASSIGNED && colors[neighbor] > color) {
+                color = colors[neighbor];
+            }
+        }
+    }
+
+    /**
+     * Collects the vertices of one colour that reach its root, reusing its queue across roots.
+     */
+    private class BackwardSearch implements IntGraph.IntConsumer {
+        private int[] queue = new int[64];
+        private int tail;
+        private int root;
+
+        int run(int root) {
+            this.root = root;
+            roots[root] = root;
+            queue[0] = root;
+            tail = 1;
+            for (int head = 0; head < tail; head++) {
+                graph.inNeighbors(queue[head], this);
+            }
+            return tail;
+        }
+
+        @Override
+        public void accept(int neighbor) {
+            // Colours are disjoint, so no other search writes these entries
+            if (roots[neighbor] == UNASSIGNED && colors[neighbor] == root) {
+                roots[neighbor] = root;
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail * 2);
+                }
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    /**
+     * Components found by {@link ParallelComponents}, numbered densely from 0 in the order of their
+     * smallest vertex index.
+     */
+    public static final class Components {
+        private final IntGraph graph;
+        private final int[] componentOf;
+        private final int[] sizes;
+        private final int rounds;
+        private final long elapsedNanos;
+
+        /**
+         * @param rootOf a representative vertex per vertex, shared by exactly the vertices of one component;
+         *               overwritten with the component ids
+         */
+        Components(IntGraph graph, int[] rootOf, int rounds, long elapsedNanos) {
+            this.graph = graph;
+            this.rounds = rounds;
+            this.elapsedNanos = elapsedNanos;
+            int[] idOfRoot = new int[rootOf.length];
+            Arrays.fill(idOfRoot, UNASSIGNED);
+            int count = 0;
+            for (int v = 0; v < rootOf.length; v++) {
+                int root = rootOf[v];
+                if (idOfRoot[root] == UNASSIGNED) {
+                    idOfRoot[root] = count++;
+                }
+                rootOf[v] = idOfRoot[root];
+            }
+            this.componentOf = rootOf;
+            this.sizes = new int[count];
+            for (int component : componentOf) {
+                sizes[component]++;
+            }
+        }
+
+        public int getCount() {
+            return sizes.length;
+        }
+
+        /**
+         * Returns the component id of the vertex with index <code>vertex</code>.
+         */
+        public int getComponent(int vertex) {
+            return componentOf[vertex];
+        }
+
+        /**
+         * Returns the component id of <code>vertex</code>.
+         *
+         * @throws IllegalArgumentException if <code>vertex</code> is not part of the graph
+         */
+        public int getComponent(Vertex vertex) {
+            int index = graph.indexOf(vertex);
+            if (index < 0) {
+                String msg = "Vertex " + vertex + " is not an element of this graph";
+                throw new IllegalArgumentException(msg);
+            }
+            return componentOf[index];
+        }
+
+        public int getSize(int component) {
+            return sizes[component];
+        }
+
+        /**
+         * Returns the id of a largest component, or -1 if the graph has no vertices.
+         */
+        public int getLargest() {
+            int largest = -1;
+            for (int component = 0; component < sizes.length; component++) {
+                if (largest < 0 || sizes[component] > sizes[largest]) {
+                    largest = component;
+                }
+            }
+            return largest;
+        }
+
+        /**
+         * Returns the number of trim-colour-collect rounds for strong components, 1 for weak components.
+         */
+        public int getRounds() {
+            return rounds;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the components as vertex sets, in the shape of JUNG's <code>WeakComponentClusterer</code>.
+         */
+        public Set<Set<Vertex>> toClusters() {
+            List<Set<Vertex>> clusters = new ArrayList<>(sizes.length);
+            for (int size : sizes) {
+                clusters.add(new HashSet<Vertex>(size * 4 / 3 + 1));
+            }
+            for (int v = 0; v < componentOf.length; v++) {
+                clusters.get(componentOf[v]).add(graph.vertex(v));
+            }
+            return new HashSet<>(clusters);
+        }
+
+        @Override
+        public String toString() {
+            int largest = getLargest();
+            return String.format("%d components, largest %d of %d vertices, %d rounds in %.1f ms",
+                    sizes.length, largest < 0 ? 0 : sizes[largest], componentOf.length, rounds, elapsedNanos / 1e6);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+import edu.uci.ics.jung.algorithms.scoring.VertexScorer;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi-threaded PageRank over a {@link CsrGraph}, with the same semantics as JUNG's
+ * <code>PageRank(graph, alpha)</code> on a directed graph:
+ * <ul>
+ * <li/>every vertex starts with, and jumps with probability <code>alpha</code> to, the uniform prior 1/N;
+ * <li/>a vertex passes <code>(1 - alpha)</code> of its score to its successors, split evenly over its out-edges;
+ * self-loops count towards the out-degree but pass nothing on;
+ * <li/>the score of vertices without out-edges is redistributed over all vertices according to the prior.
+ * </ul>
+ * Each iteration pulls scores along the IN adjacency of the snapshot, so vertex ranges are updated
+ * independently on a fork-join pool without any locking.
+ */
+public class ParallelPageRank implements VertexScorer<Vertex, Double> {
+
+    private static final int MIN_GRAIN = 1024;
+
+    private final CsrGraph snapshot;
+    private final double alpha;
+
+    private double tolerance = 0.001;
+    private int maxIterations = 100;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private double[] current;
+    private double[] next;
+    private double[] contributions;
+    private int iterations;
+    private double lastDelta;
+
+    public ParallelPageRank(CsrGraph snapshot, double alpha) {
+        if (alpha < 0 || alpha > 1) {
+            String msg = "alpha must be in [0, 1]: " + alpha;
+            throw new IllegalArgumentException(msg);
+        }
+        this.snapshot = snapshot;
+        this.alpha = alpha;
+    }
+
+    /**
+     * Sets the largest per-vertex score change at which iteration stops. Defaults to 0.001, as in JUNG.
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Sets the maximum number of iterations. Defaults to 100, as in JUNG.
+     */
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String msg = "Parallelism must be at least 1: " + parallelism;
+            throw new IllegalArgumentException(msg);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the number of iterations run by the last {@link #evaluate()}.
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the largest per-vertex score change of the last iteration.
+     */
+    public double getLastDelta() {
+        return lastDelta;
+    }
+
+    /**
+     * Iterates until the largest score change drops below the tolerance or the maximum number of
+     * iterations is reached.
+     */
+    public void evaluate() {
+        int vertexCount = snapshot.vertexCount();
+        current = new double[vertexCount];
+        next = new double[vertexCount];
+        contributions = new double[vertexCount];
+        Arrays.fill(current, 1.0 / vertexCount);
+        iterations = 0;
+        lastDelta = Double.MAX_VALUE;
+        if (vertexCount == 0) {
+            return;
+        }
+
+        int grain = Math.max(MIN_GRAIN, vertexCount / (parallelism * 8));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            while (iterations < maxIterations && lastDelta >= tolerance) {
+                double dangling = pool.invoke(new Step(Phase.CONTRIBUTIONS, 0, vertexCount, grain, 0));
+                double base = (alpha + (1 - alpha) * dangling) / vertexCount;
+                lastDelta = pool.invoke(new Step(Phase.RANKS, 0, vertexCount, grain, base));
+                double[] tmp = current;
+                current = next;
+                next = tmp;
+                iterations++;
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Returns the score of <code>vertex</code> computed by the last {@link #evaluate()}.
+     *
+     * @throws IllegalArgumentException if <code>vertex</code> is not part of the snapshot
+     */
+    @Override
+    public Double getVertexScore(Vertex vertex) {
+        int index = snapshot.indexOf(vertex);
+        if (index < 0) {
+            throw new IllegalArgumentException("Vertex " + vertex + " not an element of this graph");
+        }
+        return getScore(index);
+    }
+
+    /**
+     * Returns the score of the vertex with snapshot index <code>index</code>.
+     */
+    public double getScore(int index) {
+        if (current == null) {
+            throw new IllegalStateException("evaluate() has not been called");
+        }
+        return current[index];
+    }
+
+    /**
+     * Returns the scores computed by the last {@link #evaluate()} for top-k, threshold and histogram
+     * queries. The scores are not copied; a later <code>evaluate()</code> does not change them.
+     */
+    public VertexScores getScores() {
+        if (current == null) {
+            throw new IllegalStateException("evaluate() has not been called");
+        }
+        return new VertexScores(snapshot, current);
+    }
+
+    private enum Phase {
+        /** Share of each vertex's score per out-edge; returns the dangling score sum. */
+        CONTRIBUTIONS,
+        /** New score of each vertex; returns the largest change. */
+        RANKS
+    }
+
+    private class Step extends RecursiveTask<Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final Phase phase;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final double base;
+
+        Step(Phase phase, int from, int to, int grain, double base) {
+            this.phase = phase;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.base = base;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= grain) {
+                return phase == Phase.CONTRIBUTIONS ? contributions(from, to) : ranks(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            Step left = new Step(phase, from, mid, grain, base);
+            left.fork();
+            double right = new Step(phase, mid, to, grain, base).compute();
+            double leftResult = left.join();
+            return phase == Phase.CONTRIBUTIONS ? leftResult + right : Math.max(leftResult, right);
+        }
+
+        private double contributions(int from, int to) {
+            double dangling = 0;
+            for (int u = from; u < to; u++) {
+                int outDegree = snapshot.outDegree(u);
+                if (outDegree == 0) {
+                    dangling += current[u];
+                    contributions[u] = 0;
+                } else {
+                    contributions[u] = current[u] / outDegree;
+                }
+            }
+            return dangling;
+        }
+
+        private double ranks(int from, int to) {
+            double maxDelta = 0;
+            for (int v = from; v < to; v++) {
+                double input = 0;
+                for (int slot = snapshot.inStart(v), end = snapshot.inEnd(v); slot < end; slot++) {
+                    int u = snapshot.inSource(slot);
+                    if (u != v) {
+                        input += contributions[u];
+                    }
+                }
+                double score = (1 - alpha) * input + base;
+                next[v] = score;
+                maxDelta = Math.max(maxDelta, Math.abs(score - current[v]));
+            }
+            return maxDelta;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+import edu.uci.ics.jung.algorithms.scoring.EdgeScorer;
+import edu.uci.ics.jung.algorithms.scoring.VertexScorer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes the scores of a JUNG <code>VertexScorer</code> or <code>EdgeScorer</code> back to the
+ * Tinkerpop graph as element properties.
+ * <p>
+ * Scores are collected in batches of {@link #setBatchSize(int)} elements. Each batch is written by looking
+ * its elements up again by id, so elements read in an earlier transaction are never touched, and when the
+ * graph supports transactions each batch is committed on its own. If a batch fails it is rolled back
+ * and the exception is rethrown; earlier batches stay committed. Elements with a <code>null</code> score
+ * are skipped.
+ * <p>
+ * A score replaces any earlier value of the property. Vertex scores are written with single cardinality,
+ * so exporting again does not add a second value on backends whose vertex properties default to lists.
+ */
+public class ScoreExporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final JungHyperGraph graph;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    public ScoreExporter(JungHyperGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Sets the number of elements written per batch, and per transaction if the graph supports them.
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            String msg = "Batch size must be at least 1: " + batchSize;
+            throw new IllegalArgumentException(msg);
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Writes the score of every vertex of the graph to the vertex property <code>key</code>.
+     */
+    public Report exportVertexScores(VertexScorer<Vertex, ?> scorer, String key) {
+        long start = System.nanoTime();
+        Report report = new Report();
+        Map<Object, Object> batch = new LinkedHashMap<>();
+        for (Vertex vertex : graph.getVertices()) {
+            Object score = scorer.getVertexScore(vertex);
+            if (score == null) {
+                report.skipped++;
+                continue;
+            }
+            batch.put(vertex.id(), score);
+            if (batch.size() == batchSize) {
+                write(graph.getGraph().vertices(batch.keySet().toArray()), batch, key, report);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(graph.getGraph().vertices(batch.keySet().toArray()), batch, key, report);
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * Writes the score of every edge of the graph to the edge property <code>key</code>.
+     */
+    public Report exportEdgeScores(EdgeScorer<Edge, ?> scorer, String key) {
+        long start = System.nanoTime();
+        Report report = new Report();
+        Map<Object, Object> batch = new LinkedHashMap<>();
+        for (Edge edge : graph.getEdges()) {
+            Object score = scorer.getEdgeScore(edge);
+            if (score == null) {
+                report.skipped++;
+                continue;
+            }
+            batch.put(edge.id(), score);
+            if (batch.size() == batchSize) {
+                write(graph.getGraph().edges(batch.keySet().toArray()), batch, key, report);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(graph.getGraph().edges(batch.keySet().toArray()), batch, key, report);
+        }
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    private void write(Iterator<? extends Element> elements, Map<Object, Object> batch, String key, Report report) {
+        Graph tinkerGraph = graph.getGraph();
+        boolean transactional = tinkerGraph.features().graph().supportsTransactions();
+        long start = System.nanoTime();
+        int written = 0;
+        try {
+            while (elements.hasNext()) {
+                Element element = elements.next();
+                Object score = batch.get(element.id());
+                if (element instanceof Vertex) {
+                    ((Vertex) element).property(VertexProperty.Cardinality.single, key, score);
+                } else {
+                    element.property(key, score);
+                }
+                written++;
+            }
+            if (transactional) {
+                tinkerGraph.tx().commit();
+                report.commits++;
+            }
+        } catch (RuntimeException e) {
+            if (transactional) {
+                tinkerGraph.tx().rollback();
+            }
+            throw e;
+        }
+        report.written += written;
+        report.missing += batch.size() - written;
+        report.batches++;
+        report.writeNanos += System.nanoTime() - start;
+        batch.clear();
+    }
+
+    /**
+     * Throughput of one export.
+     */
+    public static final class Report {
+        private int written;
+        private int skipped;
+        private int missing;
+        private int batches;
+        private int commits;
+        private long writeNanos;
+        private long elapsedNanos;
+
+        /**
+         * Returns the number of properties written.
+         */
+        public int getWritten() {
+            return written;
+        }
+
+        /**
+         * Returns the number of elements whose score was <code>null</code>.
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * Returns the number of scored elements that were no longer in the graph when their batch was written.
+         */
+        public int getMissing() {
+            return missing;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        /**
+         * Returns the number of transaction commits, 0 if the graph does not support transactions.
+         */
+        public int getCommits() {
+            return commits;
+        }
+
+        /**
+         * Returns the time spent writing and committing batches, in nanoseconds.
+         */
+        public long getWriteNanos() {
+            return writeNanos;
+        }
+
+        /**
+         * Returns the wall-clock time of the whole export, including reading the scores, in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Returns the number of properties written per second of wall-clock time.
+         */
+        public double getElementsPerSecond() {
+            return elapsedNanos == 0 ? 0 : written * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ScoreExporter.Report[written=%d, skipped=%d, missing=%d, batches=%d, commits=%d, "
+                            + "%.3f ms (%.3f ms writing), %.0f elements/s]",
+                    written, skipped, missing, batches, commits, elapsedNanos / 1e6, writeNanos / 1e6,
+                    getElementsPerSecond());
+        }
+    }
+}
@@ -1,18 +1,27 @@
 import edu.uci.ics.jung.algorithms.scoring.PageRank;
 import edu.uci.ics.jung.algorithms.shortestpath.DijkstraShortestPath;
 import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Created by dheryanto on 12/02/2016.
  */
 public class TestImplementation {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
         Graph graph = TinkerFactory.createModern();
         JungHyperGraph jungHyperGraph = new JungHyperGraph(graph);
         PageRank<Vertex, Edge> pageRank = new PageRank<>(jungHyperGraph, 0.15d);
@@ -22,9 +31,104 @@ public class TestImplementation {
         for (Vertex vertex : IteratorUtils.asIterable(graph.vertices())) {
             System.out.println("PageRank of " + vertex + ": " + pageRank.getVertexScore(vertex));
         }
+        ScoreExporter exporter = new ScoreExporter(jungHyperGraph);
+        System.out.println(exporter.exportVertexScores(pageRank, "pageRank"));
+        System.out.println("Stored PageRank of v[1]: " + graph.vertices(1).next().value("pageRank"));
 
-        System.out.println("============  SHORTEST PATH ============");
+        System.out.println("============ PARALLEL PAGE RANK ============");
+        CompiledJungGraph compiledGraph = new CompiledJungGraph(graph);
+        ParallelPageRank parallelPageRank = new ParallelPageRank(compiledGraph.getSnapshot(), 0.15d);
+        parallelPageRank.evaluate();
+        double maxDifference = 0;
+        for (Vertex vertex : compiledGraph.getVertices()) {
+            double score = parallelPageRank.getVertexScore(vertex);
+            maxDifference = Math.max(maxDifference, Math.abs(score - pageRank.getVertexScore(vertex)));
+            System.out.println("PageRank of " + vertex + ": " + score);
+        }
+        System.out.println(String.format("%d iterations, max difference to JUNG: %.2e",
+                parallelPageRank.getIterations(), maxDifference));
+
+        System.out.println("============ TOP PAGE RANK ============");
+        VertexScores pageRankScores = VertexScores.collect(jungHyperGraph, pageRank);
+        System.out.println("Top 3: " + pageRankScores.top(3) + ", parallel: " + parallelPageRank.getScores().top(3));
+        System.out.println(pageRankScores.above(0.2).length + " vertices with PageRank of at least 0.2");
+        System.out.println(pageRankScores.histogram(4));
+
+        System.out.println("============ MAPPED SNAPSHOT ============");
+        File snapshotFile = File.createTempFile("modern", ".csr");
+        snapshotFile.deleteOnExit();
+        MappedCsrSnapshot.write(compiledGraph, snapshotFile);
+        CompiledJungGraph mappedGraph = new CompiledJungGraph(graph, MappedCsrSnapshot.open(snapshotFile, graph));
+        PageRank<Vertex, Edge> mappedPageRank = new PageRank<>(mappedGraph, 0.15d);
+        mappedPageRank.evaluate();
+        for (Vertex vertex : mappedGraph.getVertices()) {
+            System.out.println("PageRank of " + vertex + ": " + mappedPageRank.getVertexScore(vertex));
+        }
+
+        System.out.println("============ INT GRAPH ============");
+        final IntGraph intGraph = mappedGraph.toIntGraph();
+        int markoIndex = intGraph.indexOf(graph.vertices(1).next());
+        intGraph.outNeighbors(markoIndex, new IntGraph.IntConsumer() {
+            @Override
+            public void accept(int target) {
+                System.out.println("Successor of v[1]: " + intGraph.vertex(target) + " (index " + target + ")");
+            }
+        });
+
+        System.out.println("============ ADAPTER METRICS ============");
+        InstrumentedJungGraph instrumentedGraph = new InstrumentedJungGraph(new JungGraph(graph));
+        new PageRank<>(instrumentedGraph, 0.15d).evaluate();
+        System.out.println(instrumentedGraph.getMetrics());
+
+        System.out.println("============ CACHED ADJACENCY ============");
+        CachingJungGraph cachingGraph = new CachingJungGraph(graph, 1 << 20);
+        new PageRank<>(cachingGraph, 0.15d).evaluate();
+        System.out.println(cachingGraph.getCache().getStats());
+
+        System.out.println("============ ASYNC QUERIES ============");
+        JungGraph sharedGraph = new JungGraph(graph);
+        sharedGraph.setConcurrentReads(true);
+        try (GraphQueryService queries = new GraphQueryService(sharedGraph, 4, 100)) {
+            queries.setDefaultTimeout(1, TimeUnit.SECONDS);
+            Vertex v1 = graph.vertices(1).next();
+            Vertex v5 = graph.vertices(5).next();
+            List<CompletableFuture<List<Edge>>> paths = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                paths.add(queries.shortestPath(v1, v5));
+            }
+            CompletableFuture<Map<Vertex, Integer>> neighborhood = queries.neighborhood(v1, 1, Direction.OUT);
+            System.out.println("Path from v[1] to v[5]: " + paths.get(0).get() + ", same as JUNG: "
+                    + paths.get(0).get().equals(new DijkstraShortestPath<>(sharedGraph).getPath(v1, v5)));
+            System.out.println("Out-neighbourhood of v[1]: " + neighborhood.get());
+            System.out.println(queries.getStats());
+        }
+
+        System.out.println("============ PAGE RANK OVER KNOWS EDGES ============");
+        FilteredJungGraph knowsGraph = FilteredJungGraph.withEdgeLabels(graph, "knows");
+        PageRank<Vertex, Edge> knowsPageRank = new PageRank<>(knowsGraph, 0.15d);
+        knowsPageRank.evaluate();
+        System.out.println(knowsGraph.getVertexCount() + " vertices, " + knowsGraph.getEdgeCount() + " edges");
+        for (Vertex vertex : knowsGraph.getVertices()) {
+            System.out.println("PageRank of " + vertex + ": " + knowsPageRank.getVertexScore(vertex));
+        }
+
+        System.out.println("============ CONNECTED COMPONENTS OF KNOWS EDGES ============");
+        ParallelComponents components = new ParallelComponents(knowsGraph);
+        ParallelComponents.Components weakComponents = components.weaklyConnected();
+        System.out.println("Weak: " + weakComponents);
+        System.out.println("Strong: " + components.stronglyConnected());
+        System.out.println("Component of v[2]: " + weakComponents.getComponent(graph.vertices(2).next()));
+
+        System.out.println("============ BETWEENNESS AND CLOSENESS ============");
         JungGraph jungGraph = new JungGraph(graph);
+        ParallelCentrality centrality = new ParallelCentrality(jungGraph);
+        System.out.println(centrality.evaluate());
+        for (Vertex vertex : jungGraph.getVertices()) {
+            System.out.println("Betweenness of " + vertex + ": " + centrality.betweenness().getVertexScore(vertex)
+                    + ", closeness: " + centrality.closeness().getVertexScore(vertex));
+        }
+
+        System.out.println("============  SHORTEST PATH ============");
         DijkstraShortestPath<Vertex, Edge> dijkstra = new DijkstraShortestPath<Vertex, Edge>(jungGraph);
         List<Vertex> vertexList = IteratorUtils.toList(graph.vertices());
         for (int i = 0; i < vertexList.size(); i++) {
@@ -40,5 +144,33 @@ public class TestImplementation {
                 }
             }
         }
+
+        System.out.println("============  WEIGHTED SHORTEST PATH ============");
+        EdgeWeights weights = EdgeWeights.load(jungGraph, "weight", 1.0d);
+        DijkstraShortestPath<Vertex, Edge> weightedDijkstra = new DijkstraShortestPath<Vertex, Edge>(jungGraph, weights);
+        for (int i = 0; i < vertexList.size(); i++) {
+            for (int j = i + 1; j < vertexList.size(); j++) {
+                Number distance = weightedDijkstra.getDistance(vertexList.get(i), vertexList.get(j));
+                if (distance != null) {
+                    System.out.println(String.format("[%d --- %d]  \t%.2f  %s", i, j, distance.doubleValue(),
+                            weightedDijkstra.getPath(vertexList.get(i), vertexList.get(j))));
+                }
+            }
+        }
+
+        // Mutates the graph, so it runs last
+        System.out.println("============ INCREMENTAL PAGE RANK ============");
+        IncrementalPageRank incrementalPageRank = new IncrementalPageRank(jungGraph, 0.15d);
+        System.out.println(incrementalPageRank.evaluate());
+        Vertex marko = graph.vertices(1).next();
+        Vertex ripple = graph.vertices(5).next();
+        Edge removed = graph.edges(11).next();
+        List<Edge> added = Collections.singletonList(ripple.addEdge("knows", marko));
+        removed.remove();
+        System.out.println(incrementalPageRank.update(added, Collections.singletonList(removed)));
+
+        for (Vertex vertex : IteratorUtils.asIterable(graph.vertices())) {
+            System.out.println("PageRank of " + vertex + ": " + incrementalPageRank.getVertexScore(vertex));
+        }
     }
 }
@@ -0,0 +1,510 @@
+import edu.uci.ics.jung.algorithms.scoring.VertexScorer;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Vertex scores held in a primitive array indexed like an {@link IntGraph}, with top-k, threshold and
+ * histogram queries that run on a fork-join pool without boxing a score or building a map.
+ * <p>
+ * {@link ParallelPageRank#getScores()}, {@link ParallelCentrality#getBetweennessScores()} and
+ * {@link ParallelCentrality#getClosenessScores()} wrap the arrays of the native scorers without copying
+ * them; {@link #collect(JungHyperGraph, VertexScorer)} reads the scores of any JUNG scorer into an array
+ * once. Vertices are resolved only for the results a query returns. <code>NaN</code> scores, e.g. the
+ * closeness of a vertex that reaches nothing or a JUNG scorer returning <code>null</code>, never match
+ * a query and are counted separately by the histogram.
+ */
+public class VertexScores {
+
+    private static final int MIN_GRAIN = 4096;
+
+    /**
+     * Receives scores one at a time, in index order.
+     */
+    public interface ScoreConsumer {
+        /**
+         * @param index the index of the vertex, see {@link VertexScores#vertex(int)}
+         * @param score its score
+         */
+        void accept(int index, double score);
+    }
+
+    private final IntGraph graph;
+    private final Vertex[] vertices;
+    private final double[] scores;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Wraps <code>scores</code>, indexed like the vertices of <code>graph</code>, without copying it.
+     */
+    public VertexScores(IntGraph graph, double[] scores) {
+        this(graph, null, scores);
+    }
+
+    private VertexScores(IntGraph graph, Vertex[] vertices, double[] scores) {
+        int vertexCount = graph == null ? vertices.length : graph.vertexCount();
+        if (scores.length != vertexCount) {
+            String msg = "Expected " + vertexCount + " scores, got " + scores.length;
+            throw new IllegalArgumentException(msg);
+        }
+        this.graph = graph;
+        this.vertices = vertices;
+        this.scores = scores;
+    }
+
+    /**
+     * Reads the score of every vertex of <code>graph</code> from <code>scorer</code> in parallel.
+     * <code>getVertexScore</code> must allow concurrent calls, as JUNG's scorers do once evaluated;
+     * use {@link #collect(JungHyperGraph, VertexScorer, int)} with 1 thread for scorers that do not.
+     */
+    public static VertexScores collect(JungHyperGraph graph, VertexScorer<Vertex, ? extends Number> scorer) {
+        return collect(graph, scorer, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads the score of every vertex of <code>graph</code> from <code>scorer</code> with
+     * <code>parallelism</code> threads. <code>null</code> scores are read as <code>NaN</code>.
+     */
+    public static VertexScores collect(JungHyperGraph graph, final VertexScorer<Vertex, ? extends Number> scorer,
+                                       int parallelism) {
+        Collection<Vertex> vertexCollection = graph.getVertices();
+        final Vertex[] vertices = vertexCollection.toArray(new Vertex[vertexCollection.size()]);
+        final double[] scores = new double[vertices.length];
+        VertexScores result = new VertexScores(null, vertices, scores);
+        result.setParallelism(parallelism);
+        result.invoke(new Operation<Void>() {
+            @Override
+            public Void leaf(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    Number score = scorer.getVertexScore(vertices[i]);
+                    scores[i] = score == null ? Double.NaN : score.doubleValue();
+                }
+                return null;
+            }
+
+            @Override
+            public Void merge(Void left, Void right) {
+                return null;
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sets the number of worker threads. Defaults to the number of available processors.
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            String msg = "Parallelism must be at least 1: " + parallelism;
+            throw new IllegalArgumentException(msg);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int size() {
+        return scores.length;
+    }
+
+    public double getScore(int index) {
+        return scores[index];
+    }
+
+    public Vertex vertex(int index) {
+        return graph == null ? vertices[index] : graph.vertex(index);
+    }
+
+    /**
+     * Returns the <code>k</code> vertices with the highest scores, highest first; ties go to the lower
+     * index. Each worker keeps a bounded heap of at most <code>k</code> candidates and never more than its
+     * leaf holds, so memory stays O(min(k, n)) however large <code>k</code> is.
+     */
+    public List<Entry> top(int k) {
+        if (k < 0) {
+            String msg = "k must not be negative: " + k;
+            throw new IllegalArgumentException(msg);
+        }
+        final int limit = Math.min(k, scores.length);
+        TopHeap heap = invoke(new Operation<TopHeap>() {
+            @Override
+            public TopHeap leaf(int from, int to) {
+                TopHeap heap = new TopHeap(Math.min(limit, to - from));
+                for (int i = from; i < to; i++) {
+                    heap.offer(i, scores[i]);
+                }
+                return heap;
+            }
+
+            @Override
+            public TopHeap merge(TopHeap left, TopHeap right) {
+                // Leaf heaps are sized to their leaf, so grow into one that can keep both sides
+                int capacity = Math.min(limit, left.size + right.size);
+                TopHeap merged = left;
+                if (left.indices.length < capacity) {
+                    merged = new TopHeap(capacity);
+                    merged.offerAll(left);
+                }
+                merged.offerAll(right);
+                return merged;
+            }
+        });
+        return heap.drain();
+    }
+
+    /**
+     * Returns the indices of the vertices scoring at least <code>threshold</code>, in index order.
+     */
+    public int[] above(final double threshold) {
+        return invoke(new Operation<int[]>() {
+            @Override
+            public int[] leaf(int from, int to) {
+                int[] matches = new int[16];
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    if (scores[i] >= threshold) {
+                        if (count == matches.length) {
+                            matches = Arrays.copyOf(matches, 2 * count);
+                        }
+                        matches[count++] = i;
+                    }
+                }
+                return Arrays.copyOf(matches, count);
+            }
+
+            @Override
+            public int[] merge(int[] left, int[] right) {
+                int[] merged = Arrays.copyOf(left, left.length + right.length);
+                System.arraycopy(right, 0, merged, left.length, right.length);
+                return merged;
+            }
+        });
+    }
+
+    /**
+     * Passes the vertices scoring at least <code>threshold</code> to <code>consumer</code> in index order,
+     * from the calling thread and without collecting them first.
+     */
+    public void forEachAbove(double threshold, ScoreConsumer consumer) {
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] >= threshold) {
+                consumer.accept(i, scores[i]);
+            }
+        }
+    }
+
+    /**
+     * Passes every score to <code>consumer</code> in index order, from the calling thread.
+     */
+    public void forEach(ScoreConsumer consumer) {
+        for (int i = 0; i < scores.length; i++) {
+            consumer.accept(i, scores[i]);
+        }
+    }
+
+    /**
+     * Counts the scores in <code>bins</code> equally wide bins between the lowest and the highest score.
+     * Takes two parallel passes: one for the range, one for the counts.
+     */
+    public Histogram histogram(final int bins) {
+        if (bins < 1) {
+            String msg = "A histogram needs at least one bin: " + bins;
+            throw new IllegalArgumentException(msg);
+        }
+        // min, max, sum, count of non-NaN scores
+        final double[] range = invoke(new Operation<double[]>() {
+            @Override
+            public double[] leaf(int from, int to) {
+                double[] range = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0, 0};
+                for (int i = from; i < to; i++) {
+                    double score = scores[i];
+                    if (!Double.isNaN(score)) {
+                        range[0] = Math.min(range[0], score);
+                        range[1] = Math.max(range[1], score);
+                        range[2] += score;
+                        range[3]++;
+                    }
+                }
+                return range;
+            }
+
+            @Override
+            public double[] merge(double[] left, double[] right) {
+                left[0] = Math.min(left[0], right[0]);
+                left[1] = Math.max(left[1], right[1]);
+                left[2] += right[2];
+                left[3] += right[3];
+                return left;
+            }
+        });
+        final double width = (range[1] - range[0]) / bins;
+        long[] counts = invoke(new Operation<long[]>() {
+            @Override
+            public long[] leaf(int from, int to) {
+                long[] counts = new long[bins];
+                for (int i = from; i < to; i++) {
+                    double score = scores[i];
+                    if (!Double.isNaN(score)) {
+                        int bin = width > 0 ? (int) ((score - range[0]) / width) : 0;
+                        counts[Math.min(bin, bins - 1)]++;
+                    }
+                }
+                return counts;
+            }
+
+            @Override
+            public long[] merge(long[] left, long[] right) {
+                for (int b = 0; b < bins; b++) {
+                    left[b] += right[b];
+                }
+                return left;
+            }
+        });
+        long count = (long) range[3];
+        return new Histogram(range[0], range[1], count == 0 ? Double.NaN : range[2] / count, counts,
+                scores.length - count);
+    }
+
+    private <T> T invoke(Operation<T> operation) {
+        int grain = Math.max(MIN_GRAIN, scores.length / (parallelism * 8));
+        if (scores.length <= grain) {
+            return operation.leaf(0, scores.length);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new Step<>(operation, 0, scores.length, grain));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * A query over index ranges whose partial results can be merged.
+     */
+    private interface Operation<T> {
+        T leaf(int from, int to);
+
+        T merge(T left, T right);
+    }
+
+    /**
+     * Splits an index range in halves down to the grain, runs the operation on the leaves and merges
+     * the halves in index order.
+     */
+    private static final class Step<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final Operation<T> operation;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        Step(Operation<T> operation, int from, int to, int grain) {
+            this.operation = operation;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from <= grain) {
+                return operation.leaf(from, to);
+            }
+            int mid = (from + to) >>> 1;
+            Step<T> left = new Step<>(operation, from, mid, grain);
+            left.fork();
+            T right = new Step<>(operation, mid, to, grain).compute();
+            return operation.merge(left.join(), right);
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best <code>k</code> (index, score) pairs seen, in primitive arrays.
+     */
+    private final class TopHeap {
+        private final int[] indices;
+        private final double[] scores;
+        private int size;
+
+        TopHeap(int k) {
+            indices = new int[k];
+            scores = new double[k];
+        }
+
+        void offer(int index, double score) {
+            if (Double.isNaN(score) || indices.length == 0) {
+                return;
+            }
+            if (size < indices.length) {
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (!worse(index, score, indices[parent], this.scores[parent])) {
+                        break;
+                    }
+                    set(i, indices[parent], this.scores[parent]);
+                    i = parent;
+                }
+                set(i, index, score);
+            } else if (worse(indices[0], this.scores[0], index, score)) {
+                siftDown(index, score);
+            }
+        }
+
+        void offerAll(TopHeap other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.indices[i], other.scores[i]);
+            }
+        }
+
+        List<Entry> drain() {
+            Entry[] entries = new Entry[size];
+            // The root is the worst remaining pair, so the array fills from the back
+            while (size > 0) {
+                int index = indices[0];
+                double score = scores[0];
+                size--;
+                if (size > 0) {
+                    siftDown(indices[size], scores[size]);
+                }
+                entries[size] = new Entry(index, vertex(index), score);
+            }
+            return new ArrayList<>(Arrays.asList(entries));
+        }
+
+        private void siftDown(int index, double score) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && worse(indices[child + 1], scores[child + 1], indices[child], scores[child])) {
+                    child++;
+                }
+                if (!worse(indices[child], scores[child], index, score)) {
+                    break;
+                }
+                set(i, indices[child], scores[child]);
+                i = child;
+            }
+            set(i, index, score);
+        }
+
+        private void set(int i, int index, double score) {
+            indices[i] = index;
+            scores[i] = score;
+        }
+
+        /**
+         * Lower scores rank worse; among equal scores the higher index does.
+         */
+        private boolean worse(int index, double score, int otherIndex, double otherScore) {
+            return score < otherScore || score == otherScore && index > otherIndex;
+        }
+    }
+
+    /**
+     * One vertex of a top-k result.
+     */
+    public static final class Entry {
+        private final int index;
+        private final Vertex vertex;
+        private final double score;
+
+        Entry(int index, Vertex vertex, double score) {
+            this.index = index;
+            this.vertex = vertex;
+            this.score = score;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Vertex getVertex() {
+            return vertex;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return vertex + "=" + score;
+        }
+    }
+
+    /**
+     * Distribution of the scores over equally wide bins.
+     */
+    public static final class Histogram {
+        private final double min;
+        private final double max;
+        private final double mean;
+        private final long[] counts;
+        private final long missing;
+
+        Histogram(double min, double max, double mean, long[] counts, long missing) {
+            this.min = min;
+            this.max = max;
+            this.mean = mean;
+            this.counts = counts;
+            this.missing = missing;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public int getBins() {
+            return counts.length;
+        }
+
+        public long getCount(int bin) {
+            return counts[bin];
+        }
+
+        /**
+         * Returns the lowest score that falls into <code>bin</code>; the last bin also holds the maximum.
+         */
+        public double getLowerBound(int bin) {
+            return min + bin * (max - min) / counts.length;
+        }
+
+        /**
+         * Returns the number of <code>NaN</code> scores, which are in no bin.
+         */
+        public long getMissing() {
+            return missing;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder(String.format("min=%.4g, max=%.4g, mean=%.4g, missing=%d",
+                    min, max, mean, missing));
+            for (int b = 0; b < counts.length; b++) {
+                builder.append(String.format("%n  [%.4g, %.4g%s %d", getLowerBound(b), getLowerBound(b + 1),
+                        b == counts.length - 1 ? "]" : ")", counts[b]));
+            }
+            return builder.toString();
+        }
+    }
+}
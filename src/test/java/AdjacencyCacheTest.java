@@ -0,0 +1,125 @@
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AdjacencyCacheTest {
+
+    // The cache's estimate of an entry of ten edges: fixed overhead plus one reference per edge
+    private static final long ENTRY_OF_TEN = 96 + 4 * 10;
+
+    private List<Vertex> vertices;
+
+    @Before
+    public void setUp() {
+        vertices = TestGraphs.random(10, 20, 6).traversal().V().toList();
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedWithinBudget() {
+        AdjacencyCache cache = new AdjacencyCache(3 * ENTRY_OF_TEN);
+        assertEquals(1, cache.getStripes());
+        for (int i = 0; i < 3; i++) {
+            cache.put(vertices.get(i), Direction.OUT, new Edge[10]);
+        }
+        assertEquals(0, cache.getStats().getEvictions());
+        // Touch the oldest entry, so the second one is evicted first
+        cache.get(vertices.get(0), Direction.OUT);
+        for (int i = 3; i < 6; i++) {
+            cache.put(vertices.get(i), Direction.OUT, new Edge[10]);
+            assertTrue(cache.getStats().getEstimatedBytes() <= cache.getMaxBytes());
+        }
+        AdjacencyCache.Stats stats = cache.getStats();
+        assertEquals(3, stats.getEvictions());
+        assertEquals(3, stats.getEntries());
+        assertEquals(3 * ENTRY_OF_TEN, stats.getEstimatedBytes());
+        for (int i = 0; i < 6; i++) {
+            assertEquals("Entry of vertex " + i, i >= 3, cache.contains(vertices.get(i), Direction.OUT));
+        }
+    }
+
+    @Test
+    public void neverCachesEntriesLargerThanTheBudget() {
+        AdjacencyCache cache = new AdjacencyCache(ENTRY_OF_TEN);
+        cache.put(vertices.get(0), Direction.OUT, new Edge[10]);
+        cache.put(vertices.get(1), Direction.OUT, new Edge[11]);
+        AdjacencyCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getEntries());
+        assertEquals(0, stats.getEvictions());
+        assertTrue(cache.contains(vertices.get(0), Direction.OUT));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        AdjacencyCache cache = new AdjacencyCache(1 << 20);
+        Vertex vertex = vertices.get(0);
+        Edge[] edges = new Edge[3];
+        assertNull(cache.get(vertex, Direction.OUT));
+        cache.put(vertex, Direction.OUT, edges);
+        assertSame(edges, cache.get(vertex, Direction.OUT));
+        assertSame(edges, cache.get(vertex, Direction.OUT));
+        assertNull(cache.get(vertex, Direction.IN));
+        // Neither contains() nor peek() is a lookup
+        assertTrue(cache.contains(vertex, Direction.OUT));
+        assertSame(edges, cache.peek(vertex, Direction.OUT));
+
+        AdjacencyCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(0.5, stats.getHitRate(), 0);
+
+        cache.resetStats();
+        stats = cache.getStats();
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getMisses());
+        assertEquals(1, stats.getEntries());
+    }
+
+    @Test
+    public void invalidateDropsEveryDirection() {
+        AdjacencyCache cache = new AdjacencyCache(1 << 20);
+        Vertex vertex = vertices.get(0);
+        Vertex other = vertices.get(1);
+        for (Direction direction : Direction.values()) {
+            cache.put(vertex, direction, new Edge[10]);
+        }
+        cache.put(other, Direction.OUT, new Edge[10]);
+
+        cache.invalidate(vertex);
+        for (Direction direction : Direction.values()) {
+            assertFalse(cache.contains(vertex, direction));
+        }
+        assertTrue(cache.contains(other, Direction.OUT));
+        assertEquals(ENTRY_OF_TEN, cache.getStats().getEstimatedBytes());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().getEntries());
+        assertEquals(0, cache.getStats().getEstimatedBytes());
+    }
+
+    @Test
+    public void stripesShareTheBudget() {
+        AdjacencyCache cache = new AdjacencyCache(64L << 20);
+        assertEquals(16, cache.getStripes());
+        for (Vertex vertex : vertices) {
+            cache.put(vertex, Direction.BOTH, new Edge[1000]);
+        }
+        AdjacencyCache.Stats stats = cache.getStats();
+        assertEquals(vertices.size(), stats.getEntries());
+        assertEquals(vertices.size() * (96 + 4 * 1000L), stats.getEstimatedBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyBudget() {
+        new AdjacencyCache(0);
+    }
+}
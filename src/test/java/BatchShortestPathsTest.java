@@ -0,0 +1,67 @@
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchShortestPathsTest {
+
+    @Test
+    public void distancesMatchJungDijkstra() {
+        Graph graph = TestGraphs.random(300, 1200, 9);
+        final CsrGraph snapshot = new CompiledJungGraph(graph).getSnapshot();
+        final DijkstraDistance<Vertex, ?> expected = new DijkstraDistance<>(new JungGraph(graph));
+        final AtomicInteger mismatches = new AtomicInteger();
+        final AtomicInteger paths = new AtomicInteger();
+        BatchShortestPaths batch = new BatchShortestPaths(snapshot);
+        batch.setParallelism(4);
+        batch.runAll(new BatchShortestPaths.PathConsumer() {
+            @Override
+            public void accept(int origin, int target, double distance, int[] edges) {
+                Number distanceInJung = expected.getDistance(snapshot.vertex(origin), snapshot.vertex(target));
+                if (distanceInJung == null || distanceInJung.doubleValue() != distance || edges.length != distance) {
+                    mismatches.incrementAndGet();
+                }
+                paths.incrementAndGet();
+            }
+        });
+        // JUNG also lists the origin itself, at distance 0
+        int reachable = 0;
+        for (int v = 0; v < snapshot.vertexCount(); v++) {
+            Map<Vertex, Number> distances = expected.getDistanceMap(snapshot.vertex(v));
+            reachable += distances.size() - 1;
+        }
+        assertEquals(0, mismatches.get());
+        assertEquals(reachable, paths.get());
+    }
+
+    @Test
+    public void rejectsNegativeWeight() {
+        assertRejected(-1, "edge 3");
+    }
+
+    @Test
+    public void rejectsNaNWeight() {
+        assertRejected(Double.NaN, "edge 3");
+    }
+
+    private static void assertRejected(double weight, String expectedInMessage) {
+        CsrGraph snapshot = new CompiledJungGraph(TestGraphs.random(10, 20, 1)).getSnapshot();
+        double[] weights = new double[snapshot.edgeCount()];
+        Arrays.fill(weights, 1);
+        weights[3] = weight;
+        try {
+            new BatchShortestPaths(snapshot, weights);
+            fail("Weight " + weight + " was accepted");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(expectedInMessage));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CachingJungGraphTest {
+
+    private Graph graph;
+    private JungGraph plain;
+
+    @Before
+    public void setUp() {
+        graph = TestGraphs.random(50, 200, 9);
+        plain = new JungGraph(graph);
+    }
+
+    @Test
+    public void countsHitsAndMissesOfAdjacencyQueries() {
+        CachingJungGraph caching = new CachingJungGraph(graph, 1 << 20);
+        for (Vertex vertex : plain.getVertices()) {
+            assertEquals(plain.getOutEdges(vertex), caching.getOutEdges(vertex));
+        }
+        AdjacencyCache.Stats stats = caching.getCache().getStats();
+        assertEquals(0, stats.getHits());
+        assertEquals(50, stats.getMisses());
+        assertEquals(50, stats.getEntries());
+
+        // Successors and out-degrees read the same OUT entries
+        for (Vertex vertex : plain.getVertices()) {
+            assertEquals(plain.getSuccessors(vertex), caching.getSuccessors(vertex));
+            assertEquals(plain.outDegree(vertex), caching.outDegree(vertex));
+        }
+        stats = caching.getCache().getStats();
+        assertEquals(100, stats.getHits());
+        assertEquals(50, stats.getMisses());
+        assertEquals(0, stats.getEvictions());
+    }
+
+    @Test
+    public void tinyBudgetEvictsAndStaysCorrect() {
+        long budget = 2000;
+        CachingJungGraph caching = new CachingJungGraph(graph, budget);
+        for (int round = 0; round < 2; round++) {
+            for (Vertex vertex : plain.getVertices()) {
+                assertEquals(plain.getOutEdges(vertex), caching.getOutEdges(vertex));
+                assertEquals(plain.getInEdges(vertex), caching.getInEdges(vertex));
+                assertTrue(caching.getCache().getStats().getEstimatedBytes() <= budget);
+            }
+        }
+        AdjacencyCache.Stats stats = caching.getCache().getStats();
+        assertTrue(stats.toString(), stats.getEvictions() > 0);
+        // 100 distinct entries do not fit, so the second round misses again
+        assertTrue(stats.toString(), stats.getMisses() > 100);
+        assertEquals(200, stats.getHits() + stats.getMisses());
+    }
+
+    @Test
+    public void deltasRefreshTheAffectedVertices() {
+        CachingJungGraph caching = new CachingJungGraph(graph, 1 << 20);
+        EventStrategy strategy = EventStrategy.build().addListener(new CacheInvalidationListener(caching)).create();
+        GraphTraversalSource g = GraphTraversalSource.build().with(strategy).create(graph);
+        List<Vertex> vertices = g.V().limit(3).toList();
+        Vertex source = vertices.get(0);
+        Vertex target = vertices.get(1);
+        Vertex bystander = vertices.get(2);
+        primeEveryDirection(caching);
+
+        // Reported through the hook the listener calls; the traversal API of this Tinkerpop version cannot
+        // add an edge between two existing vertices
+        Edge added = source.addEdge(TestGraphs.EDGE_LABEL, target);
+        caching.onEdgeAdded(added);
+        assertFalse(caching.getCache().contains(source, Direction.OUT));
+        assertFalse(caching.getCache().contains(target, Direction.IN));
+        assertTrue(caching.getOutEdges(source).contains(added));
+        assertTrue(caching.getInEdges(target).contains(added));
+        assertTrue(caching.getNeighbors(source).contains(target));
+        assertMatchesFreshAdapter(caching);
+
+        primeEveryDirection(caching);
+        g.E(added.id()).drop().iterate();
+        assertFalse(caching.getOutEdges(source).contains(added));
+        assertMatchesFreshAdapter(caching);
+
+        // Only the dropped vertex and its neighbours lose their entries
+        primeEveryDirection(caching);
+        Vertex dropped = firstVertexNotAdjacentTo(bystander);
+        g.V(dropped.id()).drop().iterate();
+        assertTrue(caching.getCache().contains(bystander, Direction.BOTH));
+        assertFalse(caching.containsVertex(dropped));
+        assertMatchesFreshAdapter(caching);
+    }
+
+    private void primeEveryDirection(CachingJungGraph caching) {
+        for (Vertex vertex : caching.getVertices()) {
+            caching.getOutEdges(vertex);
+            caching.getInEdges(vertex);
+            caching.getIncidentEdges(vertex);
+        }
+    }
+
+    private Vertex firstVertexNotAdjacentTo(Vertex vertex) {
+        for (Vertex candidate : plain.getVertices()) {
+            if (!candidate.equals(vertex) && !plain.isNeighbor(candidate, vertex)) {
+                return candidate;
+            }
+        }
+        throw new AssertionError("Every vertex is adjacent to " + vertex);
+    }
+
+    /**
+     * Compares with a new adapter, since {@link #plain} caches its counts and receives no deltas.
+     */
+    private void assertMatchesFreshAdapter(CachingJungGraph caching) {
+        JungGraph fresh = new JungGraph(graph);
+        assertEquals(fresh.getVertexCount(), caching.getVertexCount());
+        assertEquals(fresh.getEdgeCount(), caching.getEdgeCount());
+        for (Vertex vertex : fresh.getVertices()) {
+            assertEquals("Out-edges of " + vertex, new HashSet<>(fresh.getOutEdges(vertex)),
+                    new HashSet<>(caching.getOutEdges(vertex)));
+            assertEquals("In-edges of " + vertex, new HashSet<>(fresh.getInEdges(vertex)),
+                    new HashSet<>(caching.getInEdges(vertex)));
+            assertEquals("Neighbours of " + vertex, fresh.getNeighbors(vertex), caching.getNeighbors(vertex));
+            assertEquals("Degree of " + vertex, fresh.degree(vertex), caching.degree(vertex));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompiledJungGraphTest {
+
+    @Test
+    public void incidentEdgesListOutEdgesBeforeInEdges() {
+        Graph graph = TestGraphs.random(200, 1000, 1);
+        CompiledJungGraph compiled = new CompiledJungGraph(graph);
+        for (Vertex vertex : IteratorUtils.asIterable(graph.vertices())) {
+            // Compared as lists, since the order within each direction may differ from Tinkerpop's
+            ArrayList<Edge> expected = new ArrayList<>(compiled.getOutEdges(vertex));
+            expected.addAll(compiled.getInEdges(vertex));
+            assertEquals(expected, new ArrayList<>(compiled.getIncidentEdges(vertex)));
+            assertEquals(IteratorUtils.size(vertex.edges(Direction.BOTH)), compiled.getIncidentEdges(vertex).size());
+            assertEquals(compiled.degree(vertex), compiled.getIncidentEdges(vertex).size());
+        }
+    }
+
+    @Test
+    public void unknownVertexHasNoAdjacencyAndZeroCounts() {
+        CompiledJungGraph compiled = new CompiledJungGraph(TinkerFactory.createModern());
+        Vertex stranger = TinkerGraph.open().addVertex(T.id, 100);
+        assertNull(compiled.getIncidentEdges(stranger));
+        assertNull(compiled.getInEdges(stranger));
+        assertNull(compiled.getOutEdges(stranger));
+        assertNull(compiled.getNeighbors(stranger));
+        assertEquals(0, compiled.degree(stranger));
+        assertEquals(0, compiled.inDegree(stranger));
+        assertEquals(0, compiled.outDegree(stranger));
+        assertEquals(0, compiled.getNeighborCount(stranger));
+        assertEquals(0, compiled.getPredecessorCount(stranger));
+        assertEquals(0, compiled.getSuccessorCount(stranger));
+    }
+}
@@ -0,0 +1,132 @@
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentReadsTest {
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 2;
+
+    private final Graph graph = TestGraphs.random(200, 800, 12);
+
+    @Test
+    public void plainAdapter() throws Exception {
+        JungGraph shared = new JungGraph(graph);
+        shared.setConcurrentReads(true);
+        assertEquals(0, mismatches(shared));
+    }
+
+    @Test
+    public void edgeIndexSmallerThanGraph() throws Exception {
+        // Rows beyond the capacity are built by the readers and evict each other
+        JungGraph shared = new JungGraph(graph, 200);
+        shared.setConcurrentReads(true);
+        assertEquals(0, mismatches(shared));
+    }
+
+    @Test
+    public void evictingAdjacencyCache() throws Exception {
+        // About a third of the adjacency fits, so readers keep missing and evicting
+        CachingJungGraph shared = new CachingJungGraph(new JungGraph(graph), 32 * 1024);
+        shared.setConcurrentReads(true);
+        assertEquals(0, mismatches(shared));
+        assertTrue(shared.getCache().getStats().getEvictions() > 0);
+    }
+
+    @Test
+    public void compiledSnapshot() throws Exception {
+        CompiledJungGraph shared = new CompiledJungGraph(graph);
+        shared.setConcurrentReads(true);
+        assertEquals(0, mismatches(shared));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cannotBeCombinedWithMutableMode() {
+        JungGraph jungGraph = new JungGraph(TinkerFactory.createModern());
+        jungGraph.setMutable(true);
+        jungGraph.setConcurrentReads(true);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void mutableModeCannotBeCombinedWithIt() {
+        JungGraph jungGraph = new JungGraph(TinkerFactory.createModern());
+        jungGraph.setConcurrentReads(true);
+        jungGraph.setMutable(true);
+    }
+
+    /**
+     * Runs Dijkstra, degree and edge lookups from every vertex on {@link #THREADS} threads at once and
+     * returns the number of answers that differ from those of a fresh single-threaded adapter.
+     */
+    private int mismatches(final JungGraph shared) throws Exception {
+        JungGraph reference = new JungGraph(graph);
+        final Map<Vertex, Map<Vertex, Number>> expectedDistances = new HashMap<>();
+        final Map<Vertex, Integer> expectedInDegrees = new HashMap<>();
+        final Map<Vertex, Integer> expectedOutDegrees = new HashMap<>();
+        for (Vertex vertex : IteratorUtils.asIterable(graph.vertices())) {
+            expectedDistances.put(vertex, new DijkstraDistance<>(reference).getDistanceMap(vertex));
+            expectedInDegrees.put(vertex, reference.inDegree(vertex));
+            expectedOutDegrees.put(vertex, reference.outDegree(vertex));
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger mismatches = new AtomicInteger();
+        List<Callable<Void>> readers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            readers.add(new Callable<Void>() {
+                @Override
+                public Void call() throws InterruptedException {
+                    start.await();
+                    for (int round = 0; round < ROUNDS; round++) {
+                        for (Vertex vertex : expectedDistances.keySet()) {
+                            if (!new DijkstraDistance<>(shared).getDistanceMap(vertex).equals(expectedDistances.get(vertex))
+                                    || shared.inDegree(vertex) != expectedInDegrees.get(vertex)
+                                    || shared.outDegree(vertex) != expectedOutDegrees.get(vertex)
+                                    || shared.degree(vertex) != shared.getIncidentEdges(vertex).size()) {
+                                mismatches.incrementAndGet();
+                            }
+                            for (Edge edge : shared.getOutEdges(vertex)) {
+                                if (shared.findEdge(vertex, edge.inVertex()) == null) {
+                                    mismatches.incrementAndGet();
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> reader : readers) {
+                futures.add(pool.submit(reader));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return mismatches.get();
+    }
+}
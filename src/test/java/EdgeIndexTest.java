@@ -0,0 +1,67 @@
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.collections4.Predicate;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class EdgeIndexTest {
+
+    @Test
+    public void indexIsOffByDefault() {
+        assertNull(new JungHyperGraph(TinkerFactory.createModern()).getEdgeIndex());
+        assertNull(new JungGraph(TinkerFactory.createModern()).getEdgeIndex());
+        assertNotNull(new JungGraph(TinkerFactory.createModern(), EdgeIndex.DEFAULT_CAPACITY).getEdgeIndex());
+    }
+
+    @Test
+    public void indexedLookupsMatchScans() {
+        Graph graph = TestGraphs.random(300, 3000, 3);
+        JungGraph scanning = new JungGraph(graph);
+        JungGraph indexed = new JungGraph(graph, 1000);
+        for (Vertex source : IteratorUtils.asIterable(graph.vertices())) {
+            for (Vertex target : IteratorUtils.asIterable(graph.vertices())) {
+                assertEquals(scanning.findEdgeSet(source, target), indexed.findEdgeSet(source, target));
+                assertEquals(scanning.isSuccessor(source, target), indexed.isSuccessor(source, target));
+            }
+        }
+    }
+
+    @Test
+    public void rowsAreReadThroughTheEdgesHook() {
+        Graph graph = TinkerFactory.createModern();
+        final AtomicInteger reads = new AtomicInteger();
+        // Exposes only the "knows" edges, without overriding includes(Edge)
+        JungGraph knows = new JungGraph(graph, 100) {
+            @Override
+            protected Iterator<Edge> edges(Vertex vertex, Direction direction) {
+                reads.incrementAndGet();
+                return IteratorUtils.filteredIterator(super.edges(vertex, direction), new Predicate<Edge>() {
+                    @Override
+                    public boolean evaluate(Edge edge) {
+                        return edge.label().equals("knows");
+                    }
+                });
+            }
+        };
+        Vertex marko = graph.vertices(1).next();
+        Vertex lop = graph.vertices(3).next();
+        Vertex josh = graph.vertices(4).next();
+
+        assertNull(knows.findEdge(marko, lop));
+        assertEquals(1, reads.get());
+        assertEquals(Collections.singleton(graph.edges(8).next()), new HashSet<>(knows.findEdgeSet(marko, josh)));
+        assertEquals(1, reads.get());
+    }
+}
@@ -0,0 +1,66 @@
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class EdgeWeightsTest {
+
+    @Test
+    public void weightsOfAdapterAreIndexedBySnapshotOrdinal() {
+        Graph graph = TinkerFactory.createModern();
+        EdgeWeights weights = EdgeWeights.load(new JungGraph(graph), "weight", 1.0d);
+        assertEquals(6, weights.size());
+        for (Edge edge : IteratorUtils.asIterable(graph.edges())) {
+            int ordinal = weights.ordinalOf(edge);
+            assertSame(edge, weights.getSnapshot().edge(ordinal));
+            assertEquals(((Number) edge.value("weight")).doubleValue(), weights.weight(ordinal), 0);
+            assertEquals(weights.weight(ordinal), weights.transform(edge), 0);
+        }
+    }
+
+    @Test
+    public void filteredViewWeighsOnlyItsEdges() {
+        Graph graph = TinkerFactory.createModern();
+        EdgeWeights weights = EdgeWeights.load(FilteredJungGraph.withEdgeLabels(graph, "knows"), "weight", 1.0d);
+        assertEquals(2, weights.size());
+        assertEquals(-1, weights.ordinalOf(graph.edges(9).next()));
+        assertEquals(0.5, weights.transform(graph.edges(7).next()), 0);
+    }
+
+    @Test
+    public void compiledGraphSharesItsSnapshot() {
+        CompiledJungGraph compiled = new CompiledJungGraph(TinkerFactory.createModern());
+        assertSame(compiled.getSnapshot(), EdgeWeights.load(compiled, "weight", 1.0d).getSnapshot());
+    }
+
+    @Test
+    public void batchShortestPathsRunOverTheWeightSnapshot() {
+        Graph graph = TinkerFactory.createModern();
+        EdgeWeights weights = EdgeWeights.load(new JungGraph(graph), "weight", 1.0d);
+        final CsrGraph snapshot = weights.getSnapshot();
+        final Map<Object, Double> fromMarko = new HashMap<>();
+        new BatchShortestPaths(snapshot, weights.getWeights()).run(
+                new int[]{snapshot.indexOf(graph.vertices(1).next())}, new BatchShortestPaths.PathConsumer() {
+                    @Override
+                    public void accept(int origin, int target, double distance, int[] edges) {
+                        synchronized (fromMarko) {
+                            fromMarko.put(snapshot.vertex(target).id(), distance);
+                        }
+                    }
+                });
+        // marko -0.4-> lop beats marko -1.0-> josh -0.4-> lop
+        assertEquals(0.4, fromMarko.get(3), 1e-12);
+        // marko -1.0-> josh -1.0-> ripple
+        assertEquals(2.0, fromMarko.get(5), 1e-12);
+        Vertex vadas = graph.vertices(2).next();
+        assertEquals(0.5, fromMarko.get(vadas.id()), 1e-12);
+    }
+}
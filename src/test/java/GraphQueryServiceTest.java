@@ -0,0 +1,185 @@
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
+import edu.uci.ics.jung.algorithms.shortestpath.UnweightedShortestPath;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GraphQueryServiceTest {
+
+    private Graph graph;
+    private JungGraph jungGraph;
+    private Vertex source;
+    private Vertex target;
+    // Holds submitted searches until the test runs them, so coalescing and cancellation are deterministic
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+    private final Executor manualExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            pending.add(command);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        graph = TestGraphs.random(300, 1200, 13);
+        jungGraph = new JungGraph(graph);
+        jungGraph.setConcurrentReads(true);
+        Iterator<Vertex> vertices = graph.vertices();
+        source = vertices.next();
+        target = vertices.next();
+    }
+
+    @Test
+    public void shortestPathMatchesJung() throws Exception {
+        try (GraphQueryService queries = new GraphQueryService(jungGraph, 2, 10)) {
+            List<Edge> path = queries.shortestPath(source, target).get();
+            Number expected = new DijkstraDistance<>(jungGraph).getDistance(source, target);
+            if (expected == null) {
+                assertTrue(path.isEmpty());
+            } else {
+                assertEquals(expected.intValue(), path.size());
+                assertEquals(source, path.get(0).outVertex());
+                assertEquals(target, path.get(path.size() - 1).inVertex());
+            }
+        }
+    }
+
+    @Test
+    public void neighborhoodMatchesJung() throws Exception {
+        try (GraphQueryService queries = new GraphQueryService(jungGraph, 2, 10)) {
+            Map<Vertex, Integer> neighborhood = queries.neighborhood(source, 2, Direction.OUT).get();
+            Map<Vertex, Number> distances = new UnweightedShortestPath<>(jungGraph).getDistanceMap(source);
+            int expected = 0;
+            for (Map.Entry<Vertex, Number> entry : distances.entrySet()) {
+                if (entry.getValue().intValue() <= 2) {
+                    expected++;
+                    assertEquals(entry.getValue().intValue(), neighborhood.get(entry.getKey()).intValue());
+                }
+            }
+            assertEquals(expected, neighborhood.size());
+        }
+    }
+
+    @Test
+    public void identicalQueriesShareOneSearch() throws Exception {
+        try (GraphQueryService queries = new GraphQueryService(jungGraph, manualExecutor)) {
+            List<CompletableFuture<List<Edge>>> paths = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                paths.add(queries.shortestPath(source, target));
+            }
+            assertEquals(1, pending.size());
+            pending.remove().run();
+            for (CompletableFuture<List<Edge>> path : paths) {
+                assertSame(paths.get(0).get(), path.get());
+            }
+            GraphQueryService.Stats stats = queries.getStats();
+            assertEquals(10, stats.getSubmitted());
+            assertEquals(9, stats.getCoalesced());
+            assertEquals(1, stats.getSearches());
+            assertEquals(0, stats.getInFlight());
+        }
+    }
+
+    @Test
+    public void searchIsSkippedOnceAllCallersCancel() {
+        try (GraphQueryService queries = new GraphQueryService(jungGraph, manualExecutor)) {
+            CompletableFuture<List<Edge>> first = queries.shortestPath(source, target);
+            CompletableFuture<List<Edge>> second = queries.shortestPath(source, target);
+            first.cancel(false);
+            assertFalse(second.isDone());
+            second.cancel(false);
+            pending.remove().run();
+            GraphQueryService.Stats stats = queries.getStats();
+            assertEquals(0, stats.getSearches());
+            assertEquals(2, stats.getCancelled());
+        }
+    }
+
+    @Test
+    public void closeCompletesPendingQueries() throws Exception {
+        GraphQueryService queries = new GraphQueryService(jungGraph, manualExecutor);
+        CompletableFuture<List<Edge>> path = queries.shortestPath(source, target, 1, TimeUnit.MINUTES);
+        CompletableFuture<Map<Vertex, Integer>> neighborhood = queries.neighborhood(source, 3, Direction.BOTH);
+        queries.close();
+        assertCancelled(path);
+        assertCancelled(neighborhood);
+        assertEquals(0, queries.getStats().getInFlight());
+
+        // The search the executor still holds notices the cancellation and never starts
+        pending.remove().run();
+        assertEquals(0, queries.getStats().getSearches());
+
+        try {
+            queries.shortestPath(source, target).get();
+            fail("Expected the closed service to reject the query");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void slowQueryTimesOut() throws Exception {
+        JungGraph slowGraph = new JungGraph(graph) {
+            @Override
+            public Collection<Vertex> getNeighbors(Vertex vertex) {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getNeighbors(vertex);
+            }
+        };
+        slowGraph.setConcurrentReads(true);
+        try (GraphQueryService queries = new GraphQueryService(slowGraph, 1, 10)) {
+            try {
+                queries.neighborhood(source, 10, Direction.BOTH, 20, TimeUnit.MILLISECONDS).get();
+                fail("Expected the query to time out");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof TimeoutException);
+            }
+            assertEquals(1, queries.getStats().getTimedOut());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimeoutIsRejected() {
+        try (GraphQueryService queries = new GraphQueryService(jungGraph, manualExecutor)) {
+            queries.setDefaultTimeout(-1, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void assertCancelled(CompletableFuture<?> future) throws Exception {
+        assertTrue(future.isDone());
+        try {
+            future.get();
+            fail("Expected " + future + " to be cancelled");
+        } catch (CancellationException e) {
+            // expected
+        }
+    }
+}
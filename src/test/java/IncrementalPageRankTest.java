@@ -0,0 +1,97 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class IncrementalPageRankTest {
+
+    private static final double ALPHA = 0.15;
+    private static final double EPSILON = 1e-8;
+
+    @Test
+    public void evaluateMatchesFullComputation() {
+        Graph graph = TestGraphs.random(500, 2000, 4);
+        IncrementalPageRank pageRank = new IncrementalPageRank(new JungGraph(graph), ALPHA);
+        pageRank.setTolerance(1e-10);
+        pageRank.evaluate();
+        assertMatchesRecompute(graph, pageRank);
+    }
+
+    @Test
+    public void updateOnModernGraphMatchesRecompute() {
+        Graph graph = TinkerFactory.createModern();
+        IncrementalPageRank pageRank = new IncrementalPageRank(new JungGraph(graph), ALPHA);
+        pageRank.setTolerance(1e-10);
+        pageRank.evaluate();
+
+        Vertex marko = graph.vertices(1).next();
+        Vertex ripple = graph.vertices(5).next();
+        Edge removed = graph.edges(11).next();
+        List<Edge> added = Collections.singletonList(ripple.addEdge("knows", marko));
+        removed.remove();
+        IncrementalPageRank.Report report = pageRank.update(added, Collections.singletonList(removed));
+
+        assertEquals(1, report.getEdgesAdded());
+        assertEquals(1, report.getEdgesRemoved());
+        assertMatchesRecompute(graph, pageRank);
+    }
+
+    @Test
+    public void repeatedDeltasIncludingNewVerticesMatchRecompute() {
+        Graph graph = TestGraphs.random(500, 2000, 5);
+        IncrementalPageRank pageRank = new IncrementalPageRank(new JungGraph(graph), ALPHA);
+        pageRank.setTolerance(1e-10);
+        pageRank.evaluate();
+
+        Random random = new Random(5);
+        for (int round = 0; round < 10; round++) {
+            List<Vertex> vertices = graph.traversal().V().toList();
+            List<Edge> edges = graph.traversal().E().toList();
+            List<Edge> removed = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Edge edge = edges.get(random.nextInt(edges.size()));
+                if (!removed.contains(edge)) {
+                    removed.add(edge);
+                }
+            }
+            for (Edge edge : removed) {
+                edge.remove();
+            }
+            List<Edge> added = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                Vertex source = vertices.get(random.nextInt(vertices.size()));
+                Vertex target = i % 5 == 0 ? graph.addVertex() : vertices.get(random.nextInt(vertices.size()));
+                added.add(source.addEdge(TestGraphs.EDGE_LABEL, target));
+            }
+            pageRank.update(added, removed);
+            assertMatchesRecompute(graph, pageRank);
+        }
+        assertEquals(500 + 10 * 4, pageRank.getVertexCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void updateBeforeEvaluateFails() {
+        new IncrementalPageRank(new JungGraph(TinkerFactory.createModern()), ALPHA)
+                .update(Collections.<Edge>emptyList(), Collections.<Edge>emptyList());
+    }
+
+    private static void assertMatchesRecompute(Graph graph, IncrementalPageRank pageRank) {
+        CompiledJungGraph compiled = new CompiledJungGraph(graph);
+        ParallelPageRank recomputed = new ParallelPageRank(compiled.getSnapshot(), ALPHA);
+        recomputed.setTolerance(1e-12);
+        recomputed.setMaxIterations(1000);
+        recomputed.evaluate();
+        assertEquals(compiled.getVertexCount(), pageRank.getVertexCount());
+        for (Vertex vertex : compiled.getVertices()) {
+            assertEquals("PageRank of " + vertex, recomputed.getVertexScore(vertex), pageRank.getVertexScore(vertex), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import edu.uci.ics.jung.graph.GraphDecorator;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InstrumentedJungGraphTest {
+
+    private Graph graph;
+    private JungGraph jungGraph;
+    private InstrumentedJungGraph instrumented;
+    private AdapterMetrics metrics;
+
+    @Before
+    public void setUp() {
+        graph = TestGraphs.random(100, 400, 4);
+        jungGraph = new JungGraph(graph);
+        instrumented = new InstrumentedJungGraph(jungGraph);
+        metrics = instrumented.getMetrics();
+    }
+
+    @Test
+    public void countsCallsAndMaterializedElements() {
+        int edges = 0;
+        for (Vertex vertex : jungGraph.getVertices()) {
+            edges += instrumented.getOutEdges(vertex).size();
+            instrumented.outDegree(vertex);
+        }
+        instrumented.getVertexCount();
+        instrumented.getVertexCount();
+        assertEquals(400, edges);
+
+        MethodMetrics outEdges = metrics.get(AdapterMetrics.Method.GET_OUT_EDGES);
+        assertEquals(100, outEdges.getCalls());
+        assertEquals(400, outEdges.getElementsMaterialized());
+        assertTrue(outEdges.getEstimatedBytes() > 0);
+        assertEquals(100, metrics.get(AdapterMetrics.Method.OUT_DEGREE).getCalls());
+        assertEquals(0, metrics.get(AdapterMetrics.Method.OUT_DEGREE).getElementsMaterialized());
+        assertEquals(2, metrics.get(AdapterMetrics.Method.GET_VERTEX_COUNT).getCalls());
+
+        // Only methods that were called, in declaration order
+        List<MethodMetrics.Snapshot> snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.size());
+        assertEquals("getOutEdges", snapshot.get(0).getMethod());
+        assertEquals("getVertexCount", snapshot.get(1).getMethod());
+        assertEquals("outDegree", snapshot.get(2).getMethod());
+
+        metrics.reset();
+        assertEquals(0, outEdges.getCalls());
+        assertTrue(metrics.snapshot().isEmpty());
+    }
+
+    @Test
+    public void splitsIterationFromCopying() {
+        assertSame(metrics, jungGraph.getAdapterMetrics());
+        for (Vertex vertex : jungGraph.getVertices()) {
+            instrumented.getSuccessors(vertex);
+            instrumented.getNeighbors(vertex);
+        }
+        for (AdapterMetrics.Method method : new AdapterMetrics.Method[]{
+                AdapterMetrics.Method.GET_SUCCESSORS, AdapterMetrics.Method.GET_NEIGHBORS}) {
+            MethodMetrics methodMetrics = metrics.get(method);
+            assertTrue(method + " iteration", methodMetrics.getIterationNanos() > 0);
+            assertTrue(method + " copy", methodMetrics.getCopyNanos() > 0);
+            assertTrue(method + " total", methodMetrics.getIterationNanos() + methodMetrics.getCopyNanos()
+                    <= methodMetrics.getTotalNanos());
+        }
+    }
+
+    @Test
+    public void viewsCopyNothing() {
+        CompiledJungGraph compiledGraph = new CompiledJungGraph(graph);
+        InstrumentedJungGraph compiled = new InstrumentedJungGraph(compiledGraph);
+        Edge edge = compiledGraph.getEdges().iterator().next();
+        for (Vertex vertex : compiled.getVertices()) {
+            // Copies through the adapter outside of an instrumented call, which must not be attributed to one
+            compiledGraph.getIncidentVertices(edge);
+            compiled.getOutEdges(vertex);
+        }
+        MethodMetrics outEdges = compiled.getMetrics().get(AdapterMetrics.Method.GET_OUT_EDGES);
+        assertEquals(100, outEdges.getCalls());
+        assertEquals(0, outEdges.getElementsMaterialized());
+        assertEquals(0, outEdges.getEstimatedBytes());
+        assertEquals(0, outEdges.getIterationNanos());
+        assertEquals(0, outEdges.getCopyNanos());
+    }
+
+    @Test
+    public void disabledMetricsRecordNothing() {
+        Vertex vertex = jungGraph.getVertices().iterator().next();
+        instrumented.getOutEdges(vertex);
+        metrics.setEnabled(false);
+        instrumented.getOutEdges(vertex);
+        instrumented.getVertexCount();
+        MethodMetrics outEdges = metrics.get(AdapterMetrics.Method.GET_OUT_EDGES);
+        long copyNanos = outEdges.getCopyNanos();
+        // Recorded values are kept while recording is off
+        assertEquals(1, outEdges.getCalls());
+        assertEquals(0, metrics.get(AdapterMetrics.Method.GET_VERTEX_COUNT).getCalls());
+
+        metrics.setEnabled(true);
+        instrumented.getOutEdges(vertex);
+        assertEquals(2, outEdges.getCalls());
+        assertTrue(outEdges.getCopyNanos() >= copyNanos);
+    }
+
+    @Test
+    public void registersAndUnregistersMBeans() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("JungHyperGraph:type=AdapterMetrics,graph="
+                + ObjectName.quote("test") + ",method=getOutEdges");
+        metrics.registerMBeans("test");
+        try {
+            assertTrue(server.isRegistered(name));
+            instrumented.getOutEdges(jungGraph.getVertices().iterator().next());
+            assertEquals(1L, server.getAttribute(name, "Calls"));
+
+            // A second set under the same name fails and leaves the first one in place
+            AdapterMetrics other = new AdapterMetrics();
+            try {
+                other.registerMBeans("test");
+                fail("Expected a duplicate registration to fail");
+            } catch (IllegalStateException e) {
+                assertTrue(server.isRegistered(name));
+            }
+        } finally {
+            metrics.unregisterMBeans();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void deserializedDecoratorRecords() throws Exception {
+        InstrumentedJungGraph original = new InstrumentedJungGraph(new EmptyGraph());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(original);
+        }
+        InstrumentedJungGraph copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (InstrumentedJungGraph) in.readObject();
+        }
+        assertNotNull(copy.getMetrics());
+        assertEquals(0, copy.getVertexCount());
+        assertEquals(1, copy.getMetrics().get(AdapterMetrics.Method.GET_VERTEX_COUNT).getCalls());
+    }
+
+    /**
+     * Serializable stand-in for a graph; the adapters themselves are not serializable.
+     */
+    private static final class EmptyGraph extends GraphDecorator<Vertex, Edge> {
+        private static final long serialVersionUID = 1L;
+
+        EmptyGraph() {
+            super(null);
+        }
+
+        @Override
+        public int getVertexCount() {
+            return 0;
+        }
+    }
+}
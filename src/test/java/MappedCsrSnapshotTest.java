@@ -0,0 +1,210 @@
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MappedCsrSnapshotTest {
+
+    private static final int VERTICES = 200;
+    private static final int EDGES = 800;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripsIntegerIds() throws IOException {
+        // Negative ids sort before positive ones
+        assertRoundTrips(graph(new IdFactory() {
+            @Override
+            public Object vertexId(int i) {
+                return 3 * i - 100;
+            }
+
+            @Override
+            public Object edgeId(int i) {
+                return 100000 - i;
+            }
+        }));
+    }
+
+    @Test
+    public void roundTripsLongIds() throws IOException {
+        // Beyond the int range
+        assertRoundTrips(graph(new IdFactory() {
+            @Override
+            public Object vertexId(int i) {
+                return (1L << 40) + 7L * i;
+            }
+
+            @Override
+            public Object edgeId(int i) {
+                return -(1L << 40) - i;
+            }
+        }));
+    }
+
+    @Test
+    public void roundTripsStringIds() throws IOException {
+        // "v10" sorts before "v2", and non-ASCII ids take more than one UTF-8 byte per char
+        assertRoundTrips(graph(new IdFactory() {
+            @Override
+            public Object vertexId(int i) {
+                return i % 2 == 0 ? "v" + i : "\u00e9l\u00e9ment-" + i;
+            }
+
+            @Override
+            public Object edgeId(int i) {
+                return "e" + i;
+            }
+        }));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMixedIdTypes() throws IOException {
+        Graph graph = TinkerGraph.open();
+        Vertex a = graph.addVertex(T.id, 1);
+        Vertex b = graph.addVertex(T.id, "two");
+        a.addEdge(TestGraphs.EDGE_LABEL, b, T.id, 3);
+        MappedCsrSnapshot.write(new CompiledJungGraph(graph), folder.newFile());
+    }
+
+    @Test
+    public void rejectsTruncatedFile() throws IOException {
+        byte[] bytes = writtenBytes();
+        for (int length : new int[]{0, 10, bytes.length / 2, bytes.length - 1}) {
+            assertRejected(Arrays.copyOf(bytes, length), "truncated");
+        }
+    }
+
+    @Test
+    public void rejectsTrailingBytes() throws IOException {
+        byte[] bytes = writtenBytes();
+        assertRejected(Arrays.copyOf(bytes, bytes.length + 3), "3 unexpected trailing bytes");
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        byte[] bytes = writtenBytes();
+        bytes[0] = 'X';
+        assertRejected(bytes, "not a CSR snapshot file");
+    }
+
+    private byte[] writtenBytes() throws IOException {
+        File file = folder.newFile();
+        MappedCsrSnapshot.write(new CompiledJungGraph(TestGraphs.random(20, 50, 3)), file);
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private void assertRejected(byte[] bytes, String message) throws IOException {
+        File file = folder.newFile();
+        Files.write(file.toPath(), bytes);
+        try {
+            MappedCsrSnapshot.open(file);
+            fail("Expected " + bytes.length + " bytes to be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    private void assertRoundTrips(Graph graph) throws IOException {
+        CsrGraph expected = new CompiledJungGraph(graph).getSnapshot();
+        File file = folder.newFile();
+        MappedCsrSnapshot.write(expected, file);
+
+        MappedCsrSnapshot resolved = MappedCsrSnapshot.open(file, graph);
+        assertSameTopology(expected, resolved);
+        for (int v = 0; v < expected.vertexCount(); v++) {
+            assertEquals(expected.vertex(v), resolved.vertex(v));
+            assertEquals(v, resolved.indexOf(expected.vertex(v)));
+        }
+        for (int e = 0; e < expected.edgeCount(); e++) {
+            assertEquals(expected.edge(e), resolved.edge(e));
+            assertEquals(e, resolved.indexOf(expected.edge(e)));
+        }
+        assertEquals(-1, resolved.indexOf(TinkerGraph.open().addVertex(T.id, "not written")));
+
+        MappedCsrSnapshot detached = MappedCsrSnapshot.open(file);
+        assertSameTopology(expected, detached);
+        for (int v = 0; v < expected.vertexCount(); v++) {
+            Vertex vertex = detached.vertex(v);
+            assertEquals(expected.vertex(v).id(), vertex.id());
+            assertEquals(expected.vertex(v).label(), vertex.label());
+            assertEquals(v, detached.indexOf(vertex));
+        }
+        for (int e = 0; e < expected.edgeCount(); e++) {
+            Edge edge = detached.edge(e);
+            Edge original = expected.edge(e);
+            assertEquals(original.id(), edge.id());
+            assertEquals(original.label(), edge.label());
+            assertEquals(original.outVertex().id(), edge.outVertex().id());
+            assertEquals(original.inVertex().id(), edge.inVertex().id());
+            assertEquals(e, detached.indexOf(edge));
+        }
+    }
+
+    private static void assertSameTopology(CsrGraph expected, CsrGraph actual) {
+        assertEquals(expected.vertexCount(), actual.vertexCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        for (int v = 0; v < expected.vertexCount(); v++) {
+            assertEquals(expected.outDegree(v), actual.outDegree(v));
+            assertEquals(expected.inDegree(v), actual.inDegree(v));
+            assertEquals(expected.degree(v), actual.degree(v));
+            assertEquals(expected.outStart(v), actual.outStart(v));
+            assertEquals(expected.outEnd(v), actual.outEnd(v));
+            assertEquals(expected.inStart(v), actual.inStart(v));
+            assertEquals(expected.inEnd(v), actual.inEnd(v));
+            for (int slot = expected.outStart(v); slot < expected.outEnd(v); slot++) {
+                assertEquals(expected.outEdge(slot), actual.outEdge(slot));
+                assertEquals(expected.outTarget(slot), actual.outTarget(slot));
+                int target = expected.outTarget(slot);
+                assertEquals(expected.findOutSlot(v, target), actual.findOutSlot(v, target));
+            }
+            for (int slot = expected.inStart(v); slot < expected.inEnd(v); slot++) {
+                assertEquals(expected.inEdge(slot), actual.inEdge(slot));
+                assertEquals(expected.inSource(slot), actual.inSource(slot));
+            }
+        }
+        for (int e = 0; e < expected.edgeCount(); e++) {
+            assertEquals(expected.edgeSource(e), actual.edgeSource(e));
+            assertEquals(expected.edgeTarget(e), actual.edgeTarget(e));
+        }
+    }
+
+    /**
+     * Random graph with self-loops and parallel edges whose element ids come from <code>ids</code>.
+     */
+    private static Graph graph(IdFactory ids) {
+        Random random = new Random(17);
+        Graph graph = TinkerGraph.open();
+        Vertex[] vertices = new Vertex[VERTICES];
+        for (int v = 0; v < VERTICES; v++) {
+            vertices[v] = graph.addVertex(T.id, ids.vertexId(v), T.label, v % 3 == 0 ? "person" : "place");
+        }
+        for (int e = 0; e < EDGES; e++) {
+            Vertex source = vertices[random.nextInt(VERTICES)];
+            Vertex target = e % 100 == 0 ? source : vertices[random.nextInt(VERTICES)];
+            source.addEdge(e % 2 == 0 ? "knows" : "visits", target, T.id, ids.edgeId(e));
+        }
+        return graph;
+    }
+
+    private interface IdFactory {
+        Object vertexId(int i);
+
+        Object edgeId(int i);
+    }
+}
@@ -0,0 +1,164 @@
+import edu.uci.ics.jung.graph.util.Pair;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.EventStrategy;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mutations applied as deltas, through mutable mode or a {@link CacheInvalidationListener}, must leave the
+ * adapter answering exactly like one freshly built over the changed graph.
+ */
+public class MutableModeTest {
+
+    private Graph graph;
+    private JungGraph jungGraph;
+    // Holds the elements passed to the JUNG mutators; only their ids, labels and properties are copied
+    private Graph scratch;
+
+    @Before
+    public void setUp() {
+        graph = TestGraphs.random(40, 120, 5);
+        jungGraph = primedAdapter(graph);
+        scratch = TinkerGraph.open();
+    }
+
+    @Test
+    public void addEdgeToNewVertex() {
+        jungGraph.setMutable(true);
+        Vertex source = graph.vertices().next();
+        Vertex newcomer = scratch.addVertex(T.id, 10000L);
+        Edge edge = scratch.addVertex(T.id, source.id()).addEdge(TestGraphs.EDGE_LABEL, newcomer, T.id, 20000L);
+
+        assertTrue(jungGraph.addEdge(edge, new Pair<>(source, newcomer)));
+        assertTrue(graph.vertices(10000L).hasNext());
+        assertEquals(1, jungGraph.inDegree(newcomer));
+        assertNotNull(jungGraph.findEdge(source, newcomer));
+        assertMatchesFreshAdapter();
+    }
+
+    @Test
+    public void addSelfLoop() {
+        jungGraph.setMutable(true);
+        Vertex vertex = graph.vertices().next();
+        int degree = jungGraph.degree(vertex);
+        Vertex copy = scratch.addVertex(T.id, vertex.id());
+        Edge loop = copy.addEdge(TestGraphs.EDGE_LABEL, copy, T.id, 20000L);
+
+        assertTrue(jungGraph.addEdge(loop, new Pair<>(vertex, vertex)));
+        // Counted once in each direction, like vertex.edges(Direction.BOTH)
+        assertEquals(degree + 2, jungGraph.degree(vertex));
+        assertNotNull(jungGraph.findEdge(vertex, vertex));
+        assertMatchesFreshAdapter();
+    }
+
+    @Test
+    public void removeEdge() {
+        jungGraph.setMutable(true);
+        Edge edge = graph.edges().next();
+        Vertex source = edge.outVertex();
+        Vertex target = edge.inVertex();
+
+        assertTrue(jungGraph.removeEdge(edge));
+        assertFalse(jungGraph.removeEdge(edge));
+        assertFalse(graph.edges(edge.id()).hasNext());
+        assertFalse(jungGraph.findEdgeSet(source, target).contains(edge));
+        assertMatchesFreshAdapter();
+    }
+
+    @Test
+    public void removeVertexWithSelfLoop() {
+        Vertex vertex = graph.vertices().next();
+        vertex.addEdge(TestGraphs.EDGE_LABEL, vertex);
+        // The loop was added behind the adapter's back, so prime a new one
+        jungGraph = primedAdapter(graph);
+        jungGraph.setMutable(true);
+
+        assertTrue(jungGraph.removeVertex(vertex));
+        assertFalse(jungGraph.removeVertex(vertex));
+        assertFalse(jungGraph.containsVertex(vertex));
+        assertMatchesFreshAdapter();
+    }
+
+    @Test
+    public void traversalMutationsThroughListener() {
+        EventStrategy strategy = EventStrategy.build().addListener(new CacheInvalidationListener(jungGraph)).create();
+        GraphTraversalSource g = GraphTraversalSource.build().with(strategy).create(graph);
+        List<Vertex> vertices = g.V().limit(3).toList();
+        Vertex first = vertices.get(0);
+        Vertex second = vertices.get(1);
+        Vertex third = vertices.get(2);
+
+        Vertex added = g.addV(T.label, "node").next();
+        assertTrue(jungGraph.containsVertex(added));
+        assertMatchesFreshAdapter();
+
+        // A new vertex reached from an existing one, and a self-loop
+        Edge edge = g.V(first.id()).as("source").addV(T.label, "node").addInE(TestGraphs.EDGE_LABEL, "source").next();
+        Vertex target = graph.vertices(edge.inVertex().id()).next();
+        g.V(second.id()).as("self").addOutE(TestGraphs.EDGE_LABEL, "self").iterate();
+        assertEquals(1, jungGraph.inDegree(target));
+        assertNotNull(jungGraph.findEdge(first, target));
+        assertNotNull(jungGraph.findEdge(second, second));
+        assertMatchesFreshAdapter();
+
+        Edge dropped = graph.edges().next();
+        g.E(dropped.id()).drop().iterate();
+        assertMatchesFreshAdapter();
+
+        g.V(third.id()).drop().iterate();
+        assertFalse(jungGraph.containsVertex(third));
+        assertMatchesFreshAdapter();
+    }
+
+    /**
+     * Returns an adapter with every cache primed, so that the tests see deltas applied to them rather than
+     * state rebuilt on demand.
+     */
+    private static JungGraph primedAdapter(Graph graph) {
+        JungGraph jungGraph = new JungGraph(graph, 1000);
+        jungGraph.buildDegreeIndex();
+        jungGraph.getVertexCount();
+        jungGraph.getEdgeIndex().warm(graph.vertices());
+        return jungGraph;
+    }
+
+    /**
+     * Compares counts, degrees and <code>findEdge</code> for every vertex pair with a new adapter that
+     * reads everything from the graph, and checks that the primed caches were updated rather than dropped.
+     */
+    private void assertMatchesFreshAdapter() {
+        assertNotNull("Degree index was dropped instead of updated", jungGraph.getDegreeIndex());
+        assertTrue("Edge index was cleared instead of updated", jungGraph.getEdgeIndex().size() > 0);
+        JungGraph fresh = new JungGraph(graph);
+        assertEquals(fresh.getVertexCount(), jungGraph.getVertexCount());
+        assertEquals(fresh.getEdgeCount(), jungGraph.getEdgeCount());
+        for (Vertex v : fresh.getVertices()) {
+            assertEquals("In-degree of " + v, fresh.inDegree(v), jungGraph.inDegree(v));
+            assertEquals("Out-degree of " + v, fresh.outDegree(v), jungGraph.outDegree(v));
+            assertEquals("Degree of " + v, fresh.degree(v), jungGraph.degree(v));
+            for (Vertex u : fresh.getVertices()) {
+                Edge expected = fresh.findEdge(v, u);
+                Edge actual = jungGraph.findEdge(v, u);
+                if (expected == null) {
+                    assertNull("Edge from " + v + " to " + u, actual);
+                } else {
+                    assertNotNull("Edge from " + v + " to " + u, actual);
+                    assertEquals(fresh.findEdgeSet(v, u), jungGraph.findEdgeSet(v, u));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class NeighborhoodPrefetcherTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    private Graph graph;
+    private Vertex origin;
+    // Stand-in for a remote backend: counts every per-vertex read and every batched traversal
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private JungGraph remoteGraph;
+
+    @Before
+    public void setUp() {
+        graph = TestGraphs.random(1000, 3000, 11);
+        origin = graph.vertices().next();
+        remoteGraph = new JungGraph(graph) {
+            @Override
+            protected Iterator<Edge> edges(Vertex vertex, Direction direction) {
+                roundTrips.incrementAndGet();
+                return super.edges(vertex, direction);
+            }
+        };
+    }
+
+    @Test
+    public void prefetchedSearchMatchesPlainSearchWithoutRoundTrips() {
+        Map<Vertex, Number> expected = new DijkstraDistance<>(new JungGraph(graph)).getDistanceMap(origin);
+
+        CachingJungGraph cold = new CachingJungGraph(remoteGraph, 64L << 20);
+        assertEquals(expected, new DijkstraDistance<>(cold).getDistanceMap(origin));
+        // One read per reached vertex
+        assertEquals(expected.size(), roundTrips.getAndSet(0));
+
+        CachingJungGraph prefetched = new CachingJungGraph(remoteGraph, 64L << 20);
+        NeighborhoodPrefetcher.Report report = prefetcher(prefetched).prefetch(
+                Collections.singleton(origin), Direction.OUT, graph.traversal().V().count().next().intValue());
+        assertEquals(report.getRoundTrips(), roundTrips.getAndSet(0));
+        assertEquals(expected.size(), report.getVertices());
+
+        assertEquals(expected, new DijkstraDistance<>(prefetched).getDistanceMap(origin));
+        assertEquals(0, roundTrips.get());
+    }
+
+    @Test
+    public void oneRoundTripPerBatchOfEachLevel() {
+        Map<Vertex, Number> distances = new DijkstraDistance<>(new JungGraph(graph)).getDistanceMap(origin);
+        TreeMap<Integer, Integer> levelSizes = new TreeMap<>();
+        for (Number distance : distances.values()) {
+            Integer size = levelSizes.get(distance.intValue());
+            levelSizes.put(distance.intValue(), size == null ? 1 : size + 1);
+        }
+        int hops = levelSizes.lastKey();
+        int expectedRoundTrips = 0;
+        for (int size : levelSizes.values()) {
+            expectedRoundTrips += (size + BATCH_SIZE - 1) / BATCH_SIZE;
+        }
+
+        CachingJungGraph prefetched = new CachingJungGraph(remoteGraph, 64L << 20);
+        NeighborhoodPrefetcher.Report report = prefetcher(prefetched).prefetch(
+                Collections.singleton(origin), Direction.OUT, hops);
+        assertEquals(hops + 1, report.getLevels());
+        assertEquals(expectedRoundTrips, report.getRoundTrips());
+        assertEquals(expectedRoundTrips, roundTrips.get());
+        assertEquals(distances.size(), report.getFetched());
+    }
+
+    @Test
+    public void bothDirectionsTakeTwoTraversalsPerBatch() {
+        CachingJungGraph prefetched = new CachingJungGraph(remoteGraph, 64L << 20);
+        NeighborhoodPrefetcher.Report report = prefetcher(prefetched).prefetch(
+                graph.traversal().V().limit(120).toList(), Direction.BOTH);
+        assertEquals(2 * 3, report.getRoundTrips());
+        assertEquals(report.getRoundTrips(), roundTrips.get());
+        for (Vertex vertex : graph.traversal().V().limit(120).toList()) {
+            assertEquals(remoteGraph.getIncidentEdges(vertex).size(), prefetched.getCache().peek(vertex, Direction.BOTH).length);
+        }
+    }
+
+    @Test
+    public void cachedVerticesAreNotReadAgain() {
+        CachingJungGraph prefetched = new CachingJungGraph(remoteGraph, 64L << 20);
+        NeighborhoodPrefetcher prefetcher = prefetcher(prefetched);
+        NeighborhoodPrefetcher.Report first = prefetcher.prefetch(Collections.singleton(origin), Direction.OUT, 3);
+        roundTrips.set(0);
+        NeighborhoodPrefetcher.Report second = prefetcher.prefetch(Collections.singleton(origin), Direction.OUT, 3);
+        assertEquals(0, roundTrips.get());
+        assertEquals(0, second.getFetched());
+        assertEquals(first.getVertices(), second.getAlreadyCached());
+    }
+
+    private NeighborhoodPrefetcher prefetcher(CachingJungGraph cachingGraph) {
+        NeighborhoodPrefetcher prefetcher = new NeighborhoodPrefetcher(cachingGraph) {
+            @Override
+            protected Iterator<Edge> fetch(Object[] ids, Direction direction) {
+                roundTrips.incrementAndGet();
+                return super.fetch(ids, direction);
+            }
+        };
+        prefetcher.setBatchSize(BATCH_SIZE);
+        prefetcher.setParallelism(4);
+        return prefetcher;
+    }
+}
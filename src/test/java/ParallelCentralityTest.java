@@ -0,0 +1,97 @@
+import edu.uci.ics.jung.algorithms.scoring.BetweennessCentrality;
+import edu.uci.ics.jung.algorithms.scoring.ClosenessCentrality;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelCentralityTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    private JungGraph jungGraph;
+    private BetweennessCentrality<Vertex, Edge> expectedBetweenness;
+    private ClosenessCentrality<Vertex, Edge> expectedCloseness;
+
+    @Before
+    public void setUp() {
+        Graph graph = TestGraphs.random(200, 600, 21);
+        List<Vertex> vertices = graph.traversal().V().limit(20).toList();
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex vertex = vertices.get(i);
+            vertex.addEdge(TestGraphs.EDGE_LABEL, vertex);
+            // Parallel edges double the shortest paths through them
+            Vertex next = vertices.get((i + 1) % vertices.size());
+            vertex.addEdge(TestGraphs.EDGE_LABEL, next);
+            vertex.addEdge(TestGraphs.EDGE_LABEL, next);
+        }
+        jungGraph = new JungGraph(graph);
+        expectedBetweenness = new BetweennessCentrality<>(jungGraph);
+        expectedCloseness = new ClosenessCentrality<>(jungGraph);
+    }
+
+    @Test
+    public void exactScoresMatchJung() {
+        for (int parallelism : new int[]{1, 4}) {
+            ParallelCentrality centrality = new ParallelCentrality(jungGraph);
+            centrality.setParallelism(parallelism);
+            ParallelCentrality.Report report = centrality.evaluate();
+            assertTrue(report.isExact());
+            assertEquals(0, report.getMaxBetweennessError(), 0);
+            assertMatchesJung(centrality);
+        }
+    }
+
+    @Test
+    public void pivotsCoveringEveryVertexGiveExactScores() {
+        int vertexCount = jungGraph.getVertexCount();
+        for (int pivots : new int[]{vertexCount, vertexCount + 5}) {
+            ParallelCentrality centrality = new ParallelCentrality(jungGraph);
+            centrality.setPivots(pivots);
+            ParallelCentrality.Report report = centrality.evaluate();
+            assertTrue(report.isExact());
+            assertEquals(vertexCount, report.getSources());
+            assertMatchesJung(centrality);
+        }
+    }
+
+    @Test
+    public void singlePivotReportsUnknownError() {
+        ParallelCentrality centrality = new ParallelCentrality(jungGraph);
+        centrality.setPivots(1);
+        ParallelCentrality.Report report = centrality.evaluate();
+        assertFalse(report.isExact());
+        assertEquals(1, report.getSources());
+        assertTrue(Double.isNaN(report.getMaxBetweennessError()));
+        assertTrue(report.toString(), report.toString().contains("max betweenness error NaN"));
+        for (int v = 0; v < jungGraph.getVertexCount(); v++) {
+            assertTrue(Double.isNaN(centrality.getBetweennessError(v)));
+        }
+    }
+
+    @Test
+    public void sampledReportHasFiniteError() {
+        ParallelCentrality centrality = new ParallelCentrality(jungGraph);
+        centrality.setPivots(50);
+        ParallelCentrality.Report report = centrality.evaluate();
+        assertFalse(report.isExact());
+        double error = report.getMaxBetweennessError();
+        assertTrue(String.valueOf(error), error > 0 && !Double.isInfinite(error));
+    }
+
+    private void assertMatchesJung(ParallelCentrality centrality) {
+        for (Vertex vertex : jungGraph.getVertices()) {
+            assertEquals("Betweenness of " + vertex, expectedBetweenness.getVertexScore(vertex),
+                    centrality.betweenness().getVertexScore(vertex), TOLERANCE);
+            assertEquals("Closeness of " + vertex, expectedCloseness.getVertexScore(vertex),
+                    centrality.closeness().getVertexScore(vertex), TOLERANCE);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import edu.uci.ics.jung.algorithms.cluster.WeakComponentClusterer;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelComponentsTest {
+
+    @Test
+    public void weakComponentsMatchJungOnKnowsEdges() {
+        FilteredJungGraph knows = FilteredJungGraph.withEdgeLabels(TinkerFactory.createModern(), "knows");
+        assertEquals(new WeakComponentClusterer<Vertex, Edge>().transform(knows),
+                new ParallelComponents(knows).weaklyConnected().toClusters());
+    }
+
+    @Test
+    public void weakComponentsMatchJungOnRandomGraph() {
+        // Below the connectivity threshold, so there are many components of different sizes
+        JungGraph graph = new JungGraph(TestGraphs.random(3000, 1400, 6));
+        for (int parallelism : new int[]{1, 4}) {
+            ParallelComponents components = new ParallelComponents(graph);
+            components.setParallelism(parallelism);
+            assertEquals(new WeakComponentClusterer<Vertex, Edge>().transform(graph),
+                    components.weaklyConnected().toClusters());
+        }
+    }
+
+    @Test
+    public void strongComponentsMatchTarjan() {
+        // Around one edge per vertex, so there is a mix of cycles, chains and singletons
+        Graph graph = TestGraphs.random(3000, 3300, 7);
+        CsrGraph snapshot = new CompiledJungGraph(graph).getSnapshot();
+        Set<Set<Vertex>> expected = new Tarjan(snapshot).components();
+        for (int parallelism : new int[]{1, 4}) {
+            ParallelComponents components = new ParallelComponents(snapshot);
+            components.setParallelism(parallelism);
+            ParallelComponents.Components strong = components.stronglyConnected();
+            assertEquals(expected, strong.toClusters());
+            assertEquals(expected.size(), strong.getCount());
+            assertTrue(strong.getSize(strong.getLargest()) > 1);
+        }
+    }
+
+    @Test
+    public void strongComponentsOfModernGraphAreSingletons() {
+        ParallelComponents.Components strong = new ParallelComponents(
+                new CompiledJungGraph(TinkerFactory.createModern()).getSnapshot()).stronglyConnected();
+        assertEquals(6, strong.getCount());
+        assertEquals(1, strong.getSize(strong.getLargest()));
+    }
+
+    /**
+     * Sequential reference: Tarjan's algorithm over the OUT adjacency of a snapshot.
+     */
+    private static final class Tarjan {
+        private final CsrGraph graph;
+        private final int[] index;
+        private final int[] lowLink;
+        private final boolean[] onStack;
+        private final int[] stack;
+        private int stackSize;
+        private int nextIndex;
+        private final Set<Set<Vertex>> components = new HashSet<>();
+
+        Tarjan(CsrGraph graph) {
+            this.graph = graph;
+            int n = graph.vertexCount();
+            index = new int[n];
+            lowLink = new int[n];
+            onStack = new boolean[n];
+            stack = new int[n];
+            Arrays.fill(index, -1);
+        }
+
+        Set<Set<Vertex>> components() {
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (index[v] < 0) {
+                    visit(v);
+                }
+            }
+            return components;
+        }
+
+        private void visit(int v) {
+            index[v] = nextIndex;
+            lowLink[v] = nextIndex;
+            nextIndex++;
+            stack[stackSize++] = v;
+            onStack[v] = true;
+            for (int slot = graph.outStart(v); slot < graph.outEnd(v); slot++) {
+                int w = graph.outTarget(slot);
+                if (index[w] < 0) {
+                    visit(w);
+                    lowLink[v] = Math.min(lowLink[v], lowLink[w]);
+                } else if (onStack[w]) {
+                    lowLink[v] = Math.min(lowLink[v], index[w]);
+                }
+            }
+            if (lowLink[v] == index[v]) {
+                List<Vertex> component = new ArrayList<>();
+                int w;
+                do {
+                    w = stack[--stackSize];
+                    onStack[w] = false;
+                    component.add(graph.vertex(w));
+                } while (w != v);
+                components.add(new HashSet<>(component));
+            }
+        }
+    }
+}
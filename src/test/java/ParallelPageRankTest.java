@@ -0,0 +1,68 @@
+import edu.uci.ics.jung.algorithms.scoring.PageRank;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ParallelPageRankTest {
+
+    private static final double ALPHA = 0.15;
+    // Both sides iterate until no score moves by more than this, so they agree to well within TOLERANCE
+    private static final double CONVERGENCE = 1e-12;
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    public void matchesJungOnModernGraph() {
+        assertMatchesJung(TinkerFactory.createModern(), 4);
+    }
+
+    @Test
+    public void matchesJungWithDanglingVerticesAndSelfLoops() {
+        // The sparse random graph has vertices without out-edges; add a few self-loops
+        Graph graph = TestGraphs.random(500, 1500, 8);
+        for (Vertex vertex : graph.traversal().V().limit(20).toList()) {
+            vertex.addEdge(TestGraphs.EDGE_LABEL, vertex);
+        }
+        assertMatchesJung(graph, 1);
+        assertMatchesJung(graph, 4);
+    }
+
+    @Test
+    public void scoresSumToOne() {
+        CsrGraph snapshot = new CompiledJungGraph(TestGraphs.random(1000, 5000, 2)).getSnapshot();
+        ParallelPageRank pageRank = new ParallelPageRank(snapshot, ALPHA);
+        pageRank.evaluate();
+        double sum = 0;
+        for (int v = 0; v < snapshot.vertexCount(); v++) {
+            sum += pageRank.getScore(v);
+        }
+        assertEquals(1, sum, TOLERANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAlphaOutsideUnitInterval() {
+        new ParallelPageRank(new CompiledJungGraph(TinkerFactory.createModern()).getSnapshot(), 1.5);
+    }
+
+    private static void assertMatchesJung(Graph graph, int parallelism) {
+        JungGraph jungGraph = new JungGraph(graph);
+        PageRank<Vertex, Edge> expected = new PageRank<>(jungGraph, ALPHA);
+        expected.setTolerance(CONVERGENCE);
+        expected.setMaxIterations(1000);
+        expected.evaluate();
+
+        CompiledJungGraph compiled = new CompiledJungGraph(graph);
+        ParallelPageRank actual = new ParallelPageRank(compiled.getSnapshot(), ALPHA);
+        actual.setTolerance(CONVERGENCE);
+        actual.setMaxIterations(1000);
+        actual.setParallelism(parallelism);
+        actual.evaluate();
+
+        for (Vertex vertex : jungGraph.getVertices()) {
+            assertEquals("PageRank of " + vertex, expected.getVertexScore(vertex), actual.getVertexScore(vertex), TOLERANCE);
+        }
+    }
+}
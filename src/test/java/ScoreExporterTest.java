@@ -0,0 +1,48 @@
+import edu.uci.ics.jung.algorithms.scoring.VertexScorer;
+import org.apache.commons.collections4.IteratorUtils;
+import org.apache.commons.configuration.BaseConfiguration;
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ScoreExporterTest {
+
+    @Test
+    public void exportingAgainReplacesScoresOnListCardinalityBackend() {
+        Configuration configuration = new BaseConfiguration();
+        configuration.setProperty(TinkerGraph.CONFIG_DEFAULT_VERTEX_PROPERTY_CARDINALITY,
+                VertexProperty.Cardinality.list.name());
+        Graph graph = TinkerGraph.open(configuration);
+        for (int v = 0; v < 5; v++) {
+            graph.addVertex();
+        }
+        ScoreExporter exporter = new ScoreExporter(new JungHyperGraph(graph));
+        exporter.setBatchSize(2);
+        exporter.exportVertexScores(new ConstantScorer(1.0), "score");
+        ScoreExporter.Report report = exporter.exportVertexScores(new ConstantScorer(2.0), "score");
+
+        assertEquals(5, report.getWritten());
+        for (Vertex vertex : IteratorUtils.asIterable(graph.vertices())) {
+            assertEquals(1, IteratorUtils.size(vertex.properties("score")));
+            assertEquals(2.0, vertex.value("score"), 0);
+        }
+    }
+
+    private static final class ConstantScorer implements VertexScorer<Vertex, Double> {
+        private final double score;
+
+        ConstantScorer(double score) {
+            this.score = score;
+        }
+
+        @Override
+        public Double getVertexScore(Vertex vertex) {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.Random;
+
+/**
+ * Graphs shared by the tests. All generators are deterministic for a given seed.
+ */
+final class TestGraphs {
+
+    static final String EDGE_LABEL = "link";
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Directed random graph with <code>edgeCount</code> edges between uniformly chosen distinct
+     * endpoints. Parallel edges may occur.
+     */
+    static Graph random(int vertexCount, int edgeCount, long seed) {
+        Random random = new Random(seed);
+        Graph graph = TinkerGraph.open();
+        Vertex[] vertices = new Vertex[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            vertices[v] = graph.addVertex();
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            int source = random.nextInt(vertexCount);
+            int target = random.nextInt(vertexCount - 1);
+            if (target >= source) {
+                target++;
+            }
+            vertices[source].addEdge(EDGE_LABEL, vertices[target]);
+        }
+        return graph;
+    }
+}
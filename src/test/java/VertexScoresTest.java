@@ -0,0 +1,125 @@
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class VertexScoresTest {
+
+    // Large enough to be split over several workers
+    private static final int SIZE = 100000;
+
+    private static CsrGraph snapshot;
+    private static double[] scores;
+
+    @BeforeClass
+    public static void setUpClass() {
+        snapshot = new CompiledJungGraph(TestGraphs.random(SIZE, 0, 13)).getSnapshot();
+        scores = new double[SIZE];
+        Random random = new Random(13);
+        for (int i = 0; i < SIZE; i++) {
+            // Few distinct values, so that ties are common
+            scores[i] = random.nextInt(1000) / 1000.0;
+        }
+    }
+
+    @Test
+    public void topMatchesSortWithTiesToLowerIndex() {
+        List<Integer> order = sortedOrder();
+        for (int parallelism : new int[]{1, 4}) {
+            VertexScores vertexScores = new VertexScores(snapshot, scores);
+            vertexScores.setParallelism(parallelism);
+            List<VertexScores.Entry> top = vertexScores.top(250);
+            assertEquals(250, top.size());
+            for (int i = 0; i < top.size(); i++) {
+                assertEquals((int) order.get(i), top.get(i).getIndex());
+                assertEquals(snapshot.vertex(order.get(i)), top.get(i).getVertex());
+            }
+        }
+    }
+
+    @Test
+    public void topBeyondSizeListsEveryScoredVertex() {
+        List<Integer> order = sortedOrder();
+        double[] withMissing = Arrays.copyOf(scores, SIZE);
+        withMissing[order.get(0)] = Double.NaN;
+        order.remove(0);
+        VertexScores vertexScores = new VertexScores(snapshot, withMissing);
+        vertexScores.setParallelism(4);
+        // Heaps are bounded by the scores, not by k
+        List<VertexScores.Entry> top = vertexScores.top(Integer.MAX_VALUE);
+        assertEquals(SIZE - 1, top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals((int) order.get(i), top.get(i).getIndex());
+        }
+        assertEquals(SIZE - 1, vertexScores.top(SIZE + 1).size());
+        assertEquals(0, vertexScores.top(0).size());
+    }
+
+    @Test
+    public void aboveListsMatchingIndicesInOrder() {
+        int[] expected = new int[SIZE];
+        int count = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (scores[i] >= 0.9) {
+                expected[count++] = i;
+            }
+        }
+        VertexScores vertexScores = new VertexScores(snapshot, scores);
+        vertexScores.setParallelism(4);
+        assertArrayEquals(Arrays.copyOf(expected, count), vertexScores.above(0.9));
+    }
+
+    @Test
+    public void histogramCountsEveryScoreOnce() {
+        double[] withMissing = Arrays.copyOf(scores, SIZE);
+        withMissing[7] = Double.NaN;
+        VertexScores vertexScores = new VertexScores(snapshot, withMissing);
+        vertexScores.setParallelism(4);
+        VertexScores.Histogram histogram = vertexScores.histogram(10);
+        long total = 0;
+        for (int bin = 0; bin < histogram.getBins(); bin++) {
+            long expected = 0;
+            for (double score : withMissing) {
+                if (score >= histogram.getLowerBound(bin)
+                        && (bin == histogram.getBins() - 1 ? score <= histogram.getMax() : score < histogram.getLowerBound(bin + 1))) {
+                    expected++;
+                }
+            }
+            assertEquals("bin " + bin, expected, histogram.getCount(bin));
+            total += histogram.getCount(bin);
+        }
+        assertEquals(SIZE - 1, total);
+        assertEquals(1, histogram.getMissing());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsScoresOfWrongLength() {
+        new VertexScores(snapshot, new double[SIZE - 1]);
+    }
+
+    /**
+     * Returns every index, highest score first and ties to the lower index.
+     */
+    private static List<Integer> sortedOrder() {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < SIZE; i++) {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                int byScore = Double.compare(scores[b], scores[a]);
+                return byScore != 0 ? byScore : Integer.compare(a, b);
+            }
+        });
+        return order;
+    }
+}